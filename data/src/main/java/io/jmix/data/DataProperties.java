@@ -31,18 +31,33 @@ public class DataProperties {
     boolean useEntityDataStoreForIdSequence;
     String uniqueConstraintViolationPattern;
     boolean useUserLocaleForRelativeDateTimeMoments;
+    int queryTreeCacheSize;
+    int numberIdCacheRefillPercent;
+    int numberIdCacheMaxSize;
+    int compiledQueryCacheSize;
+    int conditionJpqlCacheSize;
 
     public DataProperties(
             @DefaultValue("true") boolean useReadOnlyTransactionForLoad,
             @DefaultValue("100") int numberIdCacheSize,
             boolean useEntityDataStoreForIdSequence,
             @Nullable String uniqueConstraintViolationPattern,
-            @DefaultValue("true") boolean useUserLocaleForRelativeDateTimeMoments) {
+            @DefaultValue("true") boolean useUserLocaleForRelativeDateTimeMoments,
+            @DefaultValue("1000") int queryTreeCacheSize,
+            @DefaultValue("20") int numberIdCacheRefillPercent,
+            @DefaultValue("10000") int numberIdCacheMaxSize,
+            @DefaultValue("1000") int compiledQueryCacheSize,
+            @DefaultValue("1000") int conditionJpqlCacheSize) {
         this.useReadOnlyTransactionForLoad = useReadOnlyTransactionForLoad;
         this.numberIdCacheSize = numberIdCacheSize;
         this.useEntityDataStoreForIdSequence = useEntityDataStoreForIdSequence;
         this.uniqueConstraintViolationPattern = uniqueConstraintViolationPattern;
         this.useUserLocaleForRelativeDateTimeMoments = useUserLocaleForRelativeDateTimeMoments;
+        this.queryTreeCacheSize = queryTreeCacheSize;
+        this.numberIdCacheRefillPercent = numberIdCacheRefillPercent;
+        this.numberIdCacheMaxSize = numberIdCacheMaxSize;
+        this.compiledQueryCacheSize = compiledQueryCacheSize;
+        this.conditionJpqlCacheSize = conditionJpqlCacheSize;
     }
 
     public boolean isUseReadOnlyTransactionForLoad() {
@@ -68,4 +83,43 @@ public class DataProperties {
     public boolean isUseUserLocaleForRelativeDateTimeMoments() {
         return useUserLocaleForRelativeDateTimeMoments;
     }
+
+    /**
+     * @return maximum number of parsed JPQL queries kept by {@link QueryTransformerFactory}. 0 disables the cache.
+     */
+    public int getQueryTreeCacheSize() {
+        return queryTreeCacheSize;
+    }
+
+    /**
+     * @return percentage of the number id cache block which, when left unused, triggers fetching of the next block
+     * in background. 0 disables background fetching.
+     */
+    public int getNumberIdCacheRefillPercent() {
+        return numberIdCacheRefillPercent;
+    }
+
+    /**
+     * @return maximum number of ids reserved in advance for one entity. Frequently inserted entities reserve
+     * several blocks of {@link #getNumberIdCacheSize()} ids at once, up to this number.
+     */
+    public int getNumberIdCacheMaxSize() {
+        return numberIdCacheMaxSize;
+    }
+
+    /**
+     * @return maximum number of final JPQL queries analyzed by {@link io.jmix.data.impl.JpqlQueryCompiler} that are
+     * kept for reuse. 0 disables the cache.
+     */
+    public int getCompiledQueryCacheSize() {
+        return compiledQueryCacheSize;
+    }
+
+    /**
+     * @return maximum number of queries modified by conditions trees which are kept by
+     * {@link io.jmix.data.impl.jpql.generator.ConditionJpqlGenerator} for reuse. 0 disables the cache.
+     */
+    public int getConditionJpqlCacheSize() {
+        return conditionJpqlCacheSize;
+    }
 }
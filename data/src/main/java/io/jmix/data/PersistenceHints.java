@@ -53,6 +53,32 @@ public class PersistenceHints {
      */
     public static final String MSSQL_RECOMPILE_HINT = "jmix.mssql.recompile";
 
+    /**
+     * Defines a save context hint which enables deleting of entities by bulk statements. Entities that have
+     * no delete policies and no entity listeners are deleted by one {@code delete} (or soft deletion {@code update})
+     * statement per entity type and batch of ids. Such entities are not loaded into the persistence context,
+     * so optimistic locking is not checked and {@code EntityChangedEvent}s are not sent for them. The soft deletion
+     * statement increments the version. Passed instances of such entities are returned marked as removed or,
+     * if soft deleted, with the values of soft deletion attributes and the incremented version.
+     * <p>Usage examples:
+     * <pre>
+     *    saveContext.setHint(PersistenceHints.BULK_DELETE, true);
+     * </pre>
+     */
+    public static final String BULK_DELETE = "jmix.bulkDelete";
+
+    /**
+     * Defines a load context hint which enables keyset pagination. The value is a list of the last loaded row values
+     * of the sort properties followed by its id, unless the id is sorted explicitly. Instead of skipping
+     * {@code firstResult} rows, the query selects rows following the given one in the sort order.
+     * Sorting must be defined and can contain only persistent non-null datatype properties.
+     * <p>Usage examples:
+     * <pre>
+     *    loadContext.setHint(PersistenceHints.KEYSET_AFTER, new ArrayList<>(Arrays.asList(last.getCreateTs(), last.getId())));
+     * </pre>
+     */
+    public static final String KEYSET_AFTER = "jmix.keysetAfter";
+
     public static boolean isSoftDeletion(EntityManager entityManager) {
         Boolean softDeletion = (Boolean) entityManager.getProperties().get(SOFT_DELETION);
         return softDeletion == null || softDeletion;
@@ -99,4 +99,13 @@ public interface QueryTransformer {
      * @return {@code true} if at least one statement was replaced, {@code false} otherwise
      */
     default boolean replaceIsNullStatements(String paramName, boolean isNullValue) {return false;}
+
+    /**
+     * Replace all comparisons of a path with the parameter, e.g. {@code e.name = :name}, with {@code is null} or
+     * {@code is not null} statements. Used when the parameter value is null.
+     *
+     * @param paramName name of the parameter
+     * @return {@code true} if at least one comparison was replaced, {@code false} otherwise
+     */
+    default boolean replaceNullComparisons(String paramName) {return false;}
 }
@@ -17,14 +17,20 @@ package io.jmix.data;
 
 import io.jmix.data.impl.jpql.DomainModel;
 import io.jmix.data.impl.jpql.DomainModelBuilder;
+import io.jmix.data.impl.jpql.QueryTreeCache;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+
 /**
  * Factory to get {@link QueryParser} and {@link QueryTransformer} instances.
+ * <p>
+ * Parsed queries are cached, so parsers and transformers created for the same query string reuse the same parsed
+ * tree. The size of the cache is defined by {@link DataProperties#getQueryTreeCacheSize()}.
  */
 @Component("data_QueryTransformerFactory")
 public class QueryTransformerFactory {
@@ -41,17 +47,35 @@ public class QueryTransformerFactory {
     @Autowired
     protected ObjectProvider<QueryParser> queryParserProvider;
 
+    @Autowired
+    protected DataProperties properties;
+
+    protected QueryTreeCache queryTreeCache;
+
+    @PostConstruct
+    protected void init() {
+        if (properties.getQueryTreeCacheSize() > 0) {
+            queryTreeCache = new QueryTreeCache(properties.getQueryTreeCacheSize());
+        }
+    }
+
     public QueryTransformer transformer(String query) {
         if (domainModel == null) {
             domainModel = domainModelBuilder.produce();
         }
-        return beanFactory.getBean(QueryTransformer.class, domainModel, query);
+        if (queryTreeCache == null) {
+            return beanFactory.getBean(QueryTransformer.class, domainModel, query);
+        }
+        return beanFactory.getBean(QueryTransformer.class, domainModel, query, queryTreeCache);
     }
 
     public QueryParser parser(String query) {
         if (domainModel == null) {
             domainModel = domainModelBuilder.produce();
         }
-        return queryParserProvider.getObject(domainModel, query);
+        if (queryTreeCache == null) {
+            return queryParserProvider.getObject(domainModel, query);
+        }
+        return queryParserProvider.getObject(domainModel, query, queryTreeCache);
     }
 }
\ No newline at end of file
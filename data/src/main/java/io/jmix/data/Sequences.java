@@ -16,6 +16,9 @@
 
 package io.jmix.data;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Provides access to the database sequences.
  */
@@ -32,6 +35,22 @@ public interface Sequences {
      */
     long createNextValue(Sequence sequence);
 
+    /**
+     * Returns the given number of next sequence values. If supported by the database, the values are obtained
+     * by one statement.
+     *
+     * @param sequence  sequence object
+     * @param count     number of values
+     * @return          next values in ascending order
+     */
+    default List<Long> createNextValues(Sequence sequence, int count) {
+        List<Long> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(createNextValue(sequence));
+        }
+        return values;
+    }
+
     /**
      * Returns the current value of the sequence. For some implementations
      * {@link #createNextValue(Sequence)} must be called at least once beforehand.
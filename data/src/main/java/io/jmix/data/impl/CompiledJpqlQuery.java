@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.data.impl;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Immutable result of the analysis of a final JPQL query string which is needed to execute it: the names of
+ * its parameters and whether it contains macros. Instances are shared between threads.
+ *
+ * @see JpqlQueryCompiler
+ */
+public class CompiledJpqlQuery {
+
+    protected final String queryString;
+    protected final Set<String> paramNames;
+    protected final boolean macros;
+
+    public CompiledJpqlQuery(String queryString, Set<String> paramNames, boolean macros) {
+        this.queryString = queryString;
+        this.paramNames = Collections.unmodifiableSet(paramNames);
+        this.macros = macros;
+    }
+
+    public String getQueryString() {
+        return queryString;
+    }
+
+    public Set<String> getParamNames() {
+        return paramNames;
+    }
+
+    /**
+     * @return true if at least one {@link QueryMacroHandler} found a macro in the query
+     */
+    public boolean hasMacros() {
+        return macros;
+    }
+}
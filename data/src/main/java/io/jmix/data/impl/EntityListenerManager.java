@@ -265,6 +265,20 @@ public class EntityListenerManager {
         }
     }
 
+    /**
+     * @return true if any entity listener is registered for the given entity class and the listeners are enabled
+     */
+    public boolean hasListeners(Class<?> entityClass) {
+        if (!enabled)
+            return false;
+
+        for (EntityListenerType type : EntityListenerType.values()) {
+            if (!getListener(entityClass, type).isEmpty())
+                return true;
+        }
+        return false;
+    }
+
     public void enable(boolean enable) {
         this.enabled = enable;
     }
@@ -21,6 +21,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import io.jmix.core.*;
 import io.jmix.core.common.util.StringHelper;
+import io.jmix.core.entity.EntityValues;
 import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.metamodel.model.MetaProperty;
 import io.jmix.core.querycondition.*;
@@ -49,6 +50,8 @@ import java.util.stream.Collectors;
 @Scope("prototype")
 public class JpqlQueryBuilder<Q extends JmixQuery> {
 
+    protected static final String KEYSET_PARAM_PREFIX = "_keyset";
+
     protected Object id;
     protected List<?> ids;
 
@@ -56,6 +59,7 @@ public class JpqlQueryBuilder<Q extends JmixQuery> {
     protected Map<String, Object> queryParameters;
     protected Condition condition;
     protected Sort sort;
+    protected List<?> keysetValues;
 
     protected String entityName;
     protected List<String> valueProperties;
@@ -90,6 +94,9 @@ public class JpqlQueryBuilder<Q extends JmixQuery> {
     @Autowired
     protected BeanFactory beanFactory;
 
+    @Autowired
+    protected JpqlQueryCompiler jpqlQueryCompiler;
+
     public JpqlQueryBuilder setId(@Nullable Object id) {
         this.id = id;
         return this;
@@ -130,6 +137,17 @@ public class JpqlQueryBuilder<Q extends JmixQuery> {
         return this;
     }
 
+    /**
+     * Enables keyset pagination: the query selects rows following the row with the given values of the sort
+     * properties and the primary key.
+     *
+     * @see io.jmix.data.PersistenceHints#KEYSET_AFTER
+     */
+    public JpqlQueryBuilder setKeysetValues(@Nullable List<?> keysetValues) {
+        this.keysetValues = keysetValues;
+        return this;
+    }
+
     public JpqlQueryBuilder setPreviousResults(UUID sessionId, int queryKey) {
         this.previousResults = true;
         this.sessionId = sessionId;
@@ -157,13 +175,17 @@ public class JpqlQueryBuilder<Q extends JmixQuery> {
     }
 
     public Q getQuery(EntityManager em) {
-        Q query = (Q) em.createQuery(getResultQueryString());
+        CompiledJpqlQuery compiledQuery = jpqlQueryCompiler.compile(getResultQueryString());
+
+        Q query = (Q) em.createQuery(compiledQuery.getQueryString());
 
         //we have to replace parameter names in macros because for {@link com.haulmont.cuba.core.sys.querymacro.TimeBetweenQueryMacroHandler}
         //we need to replace a parameter with number of days with its value before macros is expanded to JPQL expression
-        replaceParamsInMacros(query);
+        if (compiledQuery.hasMacros()) {
+            replaceParamsInMacros(query);
+        }
 
-        Set<String> paramNames = queryTransformerFactory.parser(getResultQueryString()).getParamNames();
+        Set<String> paramNames = compiledQuery.getParamNames();
 
         for (Map.Entry<String, Object> entry : getResultParameters().entrySet()) {
             String name = entry.getKey();
@@ -194,8 +216,12 @@ public class JpqlQueryBuilder<Q extends JmixQuery> {
                     resultQuery = String.format("select e from %s e where e.%s = :entityId", entityName, getPrimaryKeyProperty().getName());
                     resultParameters = Maps.newHashMap(ImmutableMap.of("entityId", id));
                 } else if (ids != null && !ids.isEmpty()) {
-                    resultQuery = String.format("select e from %s e where e.%s in :entityIds", entityName, getPrimaryKeyProperty().getName());
-                    resultParameters = Maps.newHashMap(ImmutableMap.of("entityIds", ids));
+                    if (metadataTools.hasCompositePrimaryKey(metadata.getClass(entityName))) {
+                        buildCompositeIdsQuery();
+                    } else {
+                        resultQuery = String.format("select e from %s e where e.%s in :entityIds", entityName, getPrimaryKeyProperty().getName());
+                        resultParameters = Maps.newHashMap(ImmutableMap.of("entityIds", ids));
+                    }
                 } else {
                     resultQuery = String.format("select e from %s e", entityName);
                     resultParameters = Collections.emptyMap();
@@ -203,17 +229,84 @@ public class JpqlQueryBuilder<Q extends JmixQuery> {
             }
         }
         applyFiltering();
+        applyKeyset();
         applySorting();
         applyCount();
         restrictByPreviousResults();
     }
 
+    /**
+     * Builds a query selecting entities by a list of composite ids. JPQL does not support "in" for embedded ids,
+     * so the ids are matched by a disjunction of key property conditions.
+     */
+    protected void buildCompositeIdsQuery() {
+        MetaProperty primaryKeyProperty = getPrimaryKeyProperty();
+        List<MetaProperty> keyProperties = primaryKeyProperty.getRange().asClass().getProperties().stream()
+                .filter(metadataTools::isJpa)
+                .collect(Collectors.toList());
+
+        List<String> idConditions = new ArrayList<>(ids.size());
+        resultParameters = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Object id = ids.get(i);
+            List<String> keyConditions = new ArrayList<>(keyProperties.size());
+            for (MetaProperty keyProperty : keyProperties) {
+                String paramName = "entityId" + i + "_" + keyProperty.getName();
+                keyConditions.add(String.format("e.%s.%s = :%s", primaryKeyProperty.getName(), keyProperty.getName(), paramName));
+                resultParameters.put(paramName, EntityValues.getValue(id, keyProperty.getName()));
+            }
+            idConditions.add("(" + String.join(" and ", keyConditions) + ")");
+        }
+
+        resultQuery = String.format("select e from %s e where %s", entityName, String.join(" or ", idConditions));
+    }
+
     protected void applySorting() {
         if (sort != null) {
             resultQuery = sortJpqlGenerator.processQuery(entityName, valueProperties, resultQuery, sort);
         }
     }
 
+    protected void applyKeyset() {
+        if (keysetValues == null) {
+            return;
+        }
+        if (entityName == null || sort == null || sort.getOrders().isEmpty()) {
+            throw new DevelopmentException("Keyset pagination requires sorting of entities");
+        }
+
+        List<String> expressions = sortJpqlGenerator.getKeysetExpressions(entityName, sort);
+        if (expressions.size() != keysetValues.size()) {
+            throw new IllegalArgumentException(String.format("Keyset pagination by %s requires %d values, got %d",
+                    expressions, expressions.size(), keysetValues.size()));
+        }
+        String operator = sort.getOrders().get(0).getDirection() == Sort.Direction.ASC ? ">" : "<";
+
+        resultParameters = new HashMap<>(resultParameters);
+        // (k1 > :v1) or (k1 = :v1 and k2 > :v2) or ... as JPQL has no row value comparison
+        List<String> alternatives = new ArrayList<>(expressions.size());
+        for (int i = 0; i < expressions.size(); i++) {
+            Object value = keysetValues.get(i);
+            if (value == null) {
+                throw new IllegalArgumentException(
+                        String.format("Keyset pagination value for %s is null", expressions.get(i)));
+            }
+            resultParameters.put(KEYSET_PARAM_PREFIX + i, value);
+
+            StringBuilder sb = new StringBuilder("(");
+            for (int j = 0; j < i; j++) {
+                sb.append(expressions.get(j)).append(" = :").append(KEYSET_PARAM_PREFIX).append(j).append(" and ");
+            }
+            sb.append(expressions.get(i)).append(' ').append(operator).append(" :").append(KEYSET_PARAM_PREFIX).append(i)
+                    .append(')');
+            alternatives.add(sb.toString());
+        }
+
+        QueryTransformer transformer = queryTransformerFactory.transformer(resultQuery);
+        transformer.addWhere("(" + String.join(" or ", alternatives) + ")");
+        resultQuery = transformer.getResult();
+    }
+
     protected void applyFiltering() {
         if (condition != null) {
             Set<String> nonNullParamNames = queryParameters.entrySet().stream()
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.data.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.jmix.data.DataProperties;
+import io.jmix.data.QueryTransformerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Creates and caches {@link CompiledJpqlQuery} instances for final JPQL query strings, so repeated executions
+ * of the same query neither parse it to get parameter names nor look up macro handlers if it has no macros.
+ * <p>
+ * The size of the cache is defined by {@link DataProperties#getCompiledQueryCacheSize()}.
+ */
+@Component("data_JpqlQueryCompiler")
+public class JpqlQueryCompiler {
+
+    @Autowired
+    protected QueryTransformerFactory queryTransformerFactory;
+
+    @Autowired
+    protected ObjectProvider<QueryMacroHandler> macroHandlers;
+
+    @Autowired
+    protected DataProperties properties;
+
+    protected Cache<String, CompiledJpqlQuery> queries;
+
+    @PostConstruct
+    protected void init() {
+        if (properties.getCompiledQueryCacheSize() > 0) {
+            queries = CacheBuilder.newBuilder()
+                    .maximumSize(properties.getCompiledQueryCacheSize())
+                    .build();
+        }
+    }
+
+    public CompiledJpqlQuery compile(String queryString) {
+        if (queries == null) {
+            return doCompile(queryString);
+        }
+        CompiledJpqlQuery query = queries.getIfPresent(queryString);
+        if (query == null) {
+            query = doCompile(queryString);
+            queries.put(queryString, query);
+        }
+        return query;
+    }
+
+    /**
+     * Discards all compiled queries.
+     */
+    public void clearCache() {
+        if (queries != null) {
+            queries.invalidateAll();
+        }
+    }
+
+    protected CompiledJpqlQuery doCompile(String queryString) {
+        Set<String> paramNames = new HashSet<>(queryTransformerFactory.parser(queryString).getParamNames());
+
+        // handlers are prototypes, so checking for a macro doesn't affect handlers used for execution
+        boolean macros = macroHandlers.stream()
+                .anyMatch(handler -> !queryString.equals(handler.expandMacro(queryString)));
+
+        return new CompiledJpqlQuery(queryString, paramNames, macros);
+    }
+}
@@ -17,6 +17,7 @@
 package io.jmix.data.impl;
 
 import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.jmix.core.Metadata;
 import io.jmix.core.MetadataTools;
 import io.jmix.core.annotation.Internal;
@@ -24,18 +25,42 @@ import io.jmix.core.entity.annotation.JmixGeneratedValue;
 import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.metamodel.model.MetaProperty;
 import io.jmix.data.DataProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Intermediate cache for generated ids of entities with long/integer PK.
  * The cache size is determined by the {@code jmix.data.numberIdCacheSize} property.
+ * <p>
+ * Ids are taken from the current block without locking. When the number of unused ids in the block drops to
+ * {@code jmix.data.numberIdCacheRefillPercent} of the block size, next blocks are fetched in background.
+ * The number of blocks fetched at once depends on the allocation rate of the entity and is limited by
+ * {@code jmix.data.numberIdCacheMaxSize} ids. The blocks are reserved by one statement selecting several
+ * values of the sequence if supported by the database.
  */
 @Component("data_NumberIdCache")
 public class NumberIdCache {
@@ -51,13 +76,28 @@ public class NumberIdCache {
 
     protected ConcurrentMap<String, Generator> cache = new ConcurrentHashMap<>();
 
+    protected ThreadPoolExecutor refillExecutor = createRefillExecutor();
+
+    private static final Logger log = LoggerFactory.getLogger(NumberIdCache.class);
+
+    /**
+     * Period for which blocks fetched in background should be enough at the observed allocation rate.
+     */
+    protected static final long ADAPTIVE_REFILL_PERIOD_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    protected static final int REFILL_THREADS = 2;
+
     protected class Generator {
-        protected long counter;
-        protected long sequenceValue;
         protected String entityName;
         protected String sequenceName;
         protected boolean cached;
 
+        protected final AtomicReference<Block> block = new AtomicReference<>();
+        protected final Deque<Block> prefetched = new ArrayDeque<>();
+        protected CompletableFuture<List<Block>> nextBlocks;
+        protected long blocksUsed;
+        protected long lastRefillTime = System.nanoTime();
+
         public Generator(String entityName,
                          @Nullable String sequenceName,
                          boolean cached) {
@@ -65,7 +105,8 @@ public class NumberIdCache {
             this.sequenceName = sequenceName;
             this.cached = cached;
             if (useIdCache()) {
-                createCachedCounter();
+                block.set(fetchBlock());
+                blocksUsed++;
             }
         }
 
@@ -73,23 +114,142 @@ public class NumberIdCache {
             return dataProperties.getNumberIdCacheSize() != 0 && cached;
         }
 
-        protected void createCachedCounter() {
-            sequenceValue = numberIdWorker.createCachedLongId(entityName, sequenceName);
-            counter = sequenceValue;
-        }
-
-        public synchronized long getNext() {
+        public long getNext() {
             if (!useIdCache()) {
                 return numberIdWorker.createLongId(entityName, sequenceName);
-            } else {
-                long next = ++counter;
-                if (next > sequenceValue + dataProperties.getNumberIdCacheSize()) {
-                    createCachedCounter();
-                    next = ++counter;
+            }
+            while (true) {
+                Block current = block.get();
+                if (current != null) {
+                    long next = current.counter.incrementAndGet();
+                    if (next <= current.last) {
+                        if (next >= current.refillFrom && current.refillRequested.compareAndSet(false, true)) {
+                            requestNextBlocks(current);
+                        }
+                        return next;
+                    }
+                }
+                switchBlock(current);
+            }
+        }
+
+        /**
+         * Starts fetching of blocks in background if nothing is prefetched yet. The number of blocks is derived
+         * from the allocation rate observed since the previous request.
+         */
+        protected synchronized void requestNextBlocks(Block current) {
+            if (block.get() != current || !prefetched.isEmpty() || nextBlocks != null) {
+                return;
+            }
+            long now = System.nanoTime();
+            long elapsed = Math.max(now - lastRefillTime, 1);
+            int count = getBlocksCount(blocksUsed * current.size, elapsed, current.size);
+            blocksUsed = 0;
+            lastRefillTime = now;
+            try {
+                nextBlocks = CompletableFuture.supplyAsync(() -> fetchBlocks(count), refillExecutor);
+            } catch (RejectedExecutionException e) {
+                // the cache is shut down, the next block will be fetched synchronously by switchBlock()
+                log.debug("Background fetching of blocks of ids for {} is rejected", entityName);
+            }
+        }
+
+        /**
+         * @param consumed number of ids consumed during the given period
+         * @param elapsedNanos period in nanoseconds
+         * @param blockSize size of one block
+         * @return number of blocks to reserve so that they last for {@link #ADAPTIVE_REFILL_PERIOD_NANOS}
+         */
+        protected int getBlocksCount(long consumed, long elapsedNanos, int blockSize) {
+            int maxCount = Math.max(dataProperties.getNumberIdCacheMaxSize() / blockSize, 1);
+            double expected = (double) consumed * ADAPTIVE_REFILL_PERIOD_NANOS / elapsedNanos;
+            long count = (long) Math.ceil(expected / blockSize);
+            return (int) Math.max(1, Math.min(count, maxCount));
+        }
+
+        /**
+         * Replaces the exhausted block by the one fetched in background or, if there is no such block,
+         * fetches it synchronously.
+         */
+        protected synchronized void switchBlock(@Nullable Block exhausted) {
+            if (block.get() != exhausted) {
+                return;
+            }
+            int size = dataProperties.getNumberIdCacheSize();
+            if (prefetched.isEmpty() && nextBlocks != null) {
+                try {
+                    prefetched.addAll(nextBlocks.join());
+                } catch (CompletionException | CancellationException e) {
+                    log.warn("Unable to fetch next blocks of ids for {} in background", entityName, e);
+                }
+                nextBlocks = null;
+            }
+            Block newBlock = null;
+            while (newBlock == null && !prefetched.isEmpty()) {
+                Block candidate = prefetched.poll();
+                if (candidate.size == size) {
+                    newBlock = candidate;
+                }
+            }
+            if (newBlock == null) {
+                newBlock = fetchBlock();
+            }
+            block.set(newBlock);
+            blocksUsed++;
+        }
+
+        protected void awaitNextBlocks() {
+            CompletableFuture<List<Block>> future;
+            synchronized (this) {
+                future = nextBlocks;
+            }
+            if (future != null) {
+                try {
+                    future.join();
+                } catch (CompletionException | CancellationException e) {
+                    // ignore, the blocks are discarded anyway
                 }
-                return next;
             }
         }
+
+        protected List<Block> fetchBlocks(int count) {
+            if (count == 1) {
+                return Collections.singletonList(fetchBlock());
+            }
+            List<Long> sequenceValues = numberIdWorker.createCachedLongIds(entityName, sequenceName, count);
+            List<Block> blocks = new ArrayList<>(sequenceValues.size());
+            for (Long sequenceValue : sequenceValues) {
+                blocks.add(createBlock(sequenceValue));
+            }
+            return blocks;
+        }
+
+        protected Block fetchBlock() {
+            return createBlock(numberIdWorker.createCachedLongId(entityName, sequenceName));
+        }
+
+        protected Block createBlock(long sequenceValue) {
+            int size = dataProperties.getNumberIdCacheSize();
+            return new Block(sequenceValue, size, size * dataProperties.getNumberIdCacheRefillPercent() / 100);
+        }
+    }
+
+    /**
+     * Range of ids {@code (sequenceValue, sequenceValue + size]} obtained by one call to the database sequence.
+     */
+    protected static class Block {
+        protected final AtomicLong counter;
+        protected final long last;
+        protected final int size;
+        protected final long refillFrom;
+        protected final AtomicBoolean refillRequested = new AtomicBoolean();
+
+        protected Block(long sequenceValue, int size, int lowWaterMark) {
+            this.counter = new AtomicLong(sequenceValue);
+            this.last = sequenceValue + size;
+            this.size = size;
+            this.refillFrom = lowWaterMark > 0 ? last - lowWaterMark : Long.MAX_VALUE;
+        }
     }
 
     protected static class SequenceParams {
@@ -151,9 +311,28 @@ public class NumberIdCache {
      */
     @Internal
     public void reset() {
+        for (Generator generator : cache.values()) {
+            generator.awaitNextBlocks();
+        }
         cache.clear();
     }
 
+    protected ThreadPoolExecutor createRefillExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(REFILL_THREADS, REFILL_THREADS,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("jmix-number-id-refill-%d")
+                        .setDaemon(true)
+                        .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        refillExecutor.shutdownNow();
+    }
+
     protected String getCacheKey(String entityName, @Nullable String sequenceName) {
         return sequenceName == null ? entityName : sequenceName;
     }
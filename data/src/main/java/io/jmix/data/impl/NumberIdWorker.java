@@ -28,6 +28,8 @@ import org.springframework.stereotype.Component;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.List;
+
 /**
  * Generates ids for entities with long/integer PK using database sequences.
  */
@@ -64,6 +66,19 @@ public class NumberIdWorker {
         return sequences.createNextValue(sequence);
     }
 
+    /**
+     * Returns the given number of next values of the cached sequence, obtained by one statement if supported
+     * by the database. Each value starts a block of {@code jmix.data.numberIdCacheSize} ids.
+     */
+    public List<Long> createCachedLongIds(String entityName, String sequenceName, int count) {
+        Sequence sequence = Sequence.withName(getSequenceName(entityName, sequenceName))
+                .setStore(getDataStore(entityName))
+                .setStartValue(0)
+                .setIncrement(dataProperties.getNumberIdCacheSize());
+
+        return sequences.createNextValues(sequence, count);
+    }
+
     /**
      * INTERNAL. Used by tests.
      */
@@ -39,13 +39,22 @@ import javax.persistence.Query;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.regex.Pattern;
 
+/**
+ * Operations on a sequence are guarded by a read-write lock of this sequence only, so operations on different
+ * sequences do not block each other. Statements for getting next and current values are split once and cached.
+ * If the sequence is known to exist and its next/current value is obtained by a single statement, the statement is
+ * executed without opening a transaction.
+ */
 @Component("data_Sequences")
 public class SequencesImpl implements Sequences {
 
@@ -54,8 +63,9 @@ public class SequencesImpl implements Sequences {
     @Autowired
     protected DbmsSpecifics dbmsSpecifics;
 
-    protected ReadWriteLock lock = new ReentrantReadWriteLock();
+    protected ConcurrentMap<String, ReadWriteLock> locks = new ConcurrentHashMap<>();
     protected Set<String> existingSequences = ConcurrentHashMap.newKeySet();
+    protected ConcurrentMap<String, List<String>> statements = new ConcurrentHashMap<>();
 
     protected static final Pattern SEQ_PATTERN = Pattern.compile("[a-zA-Z0-9_]+");
     protected static final Object NO_RESULT = new Object();
@@ -68,6 +78,29 @@ public class SequencesImpl implements Sequences {
         return getResult(sequence, sqlScript);
     }
 
+    @Override
+    public List<Long> createNextValues(Sequence sequence, int count) {
+        Preconditions.checkNotNull(sequence, "Sequence can't be null");
+        checkSequenceName(sequence.getName());
+        String sql = count > 1 ? getSequenceSupport(sequence).getNextValuesSql(sequence.getName(), count) : null;
+        if (sql == null) {
+            return Sequences.super.createNextValues(sequence, count);
+        }
+        ReadWriteLock lock = getLock(sequence);
+        lock.readLock().lock();
+        try {
+            checkSequenceExists(sequence, lock);
+            JdbcTemplate jdbcTemplate = storeAwareLocator.getJdbcTemplate(getDataStore(sequence));
+            List<Long> values = new ArrayList<>(jdbcTemplate.query(sql, (rs, rowNum) -> rs.getLong(1)));
+            Collections.sort(values);
+            return values;
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Error executing SQL for getting next numbers", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     @Override
     public long getCurrentValue(Sequence sequence) {
         Preconditions.checkNotNull(sequence, "Sequence can't be null");
@@ -81,11 +114,12 @@ public class SequencesImpl implements Sequences {
         Preconditions.checkNotNull(sequence, "Sequence can't be null");
         checkSequenceName(sequence.getName());
         String sqlScript = getSequenceSupport(sequence).modifySequenceSql(sequence.getName(), value);
+        ReadWriteLock lock = getLock(sequence);
         lock.readLock().lock();
         try {
             TransactionTemplate transactionTemplate = storeAwareLocator.getTransactionTemplate(getDataStore(sequence));
             transactionTemplate.executeWithoutResult(status -> {
-                checkSequenceExists(sequence);
+                checkSequenceExists(sequence, lock);
                 executeScript(sequence, sqlScript);
             });
         } finally {
@@ -102,6 +136,7 @@ public class SequencesImpl implements Sequences {
             throw new IllegalStateException(String.format("Attempt to delete nonexistent sequence '%s'", sequence));
         }
         String sqlScript = getSequenceSupport(sequence).deleteSequenceSql(sequenceName);
+        ReadWriteLock lock = getLock(sequence);
         lock.writeLock().lock();
         try {
             if (!existingSequences.contains(sequenceName)) {
@@ -125,13 +160,21 @@ public class SequencesImpl implements Sequences {
     }
 
     protected long getResult(Sequence sequence, String sqlScript) {
+        ReadWriteLock lock = getLock(sequence);
         lock.readLock().lock();
         try {
-            TransactionTemplate transactionTemplate = storeAwareLocator.getTransactionTemplate(getDataStore(sequence));
-            Object value = transactionTemplate.execute((TransactionCallback<?>) status -> {
-                checkSequenceExists(sequence);
-                return executeScript(sequence, sqlScript);
-            });
+            List<String> sqlStatements = getStatements(sqlScript);
+            Object value;
+            if (sqlStatements.size() == 1 && existingSequences.contains(sequence.getName())) {
+                // a single statement does not need a transaction to share the connection with other statements
+                value = executeStatements(sequence, sqlStatements);
+            } else {
+                TransactionTemplate transactionTemplate = storeAwareLocator.getTransactionTemplate(getDataStore(sequence));
+                value = transactionTemplate.execute((TransactionCallback<?>) status -> {
+                    checkSequenceExists(sequence, lock);
+                    return executeStatements(sequence, sqlStatements);
+                });
+            }
             if (value instanceof Long)
                 return (Long) value;
             else if (value instanceof BigDecimal)
@@ -149,7 +192,10 @@ public class SequencesImpl implements Sequences {
         }
     }
 
-    protected void checkSequenceExists(Sequence sequence) {
+    /**
+     * Creates the sequence if it does not exist. Must be invoked while holding the read lock of the sequence.
+     */
+    protected void checkSequenceExists(Sequence sequence, ReadWriteLock lock) {
         String sequenceName = sequence.getName();
         if (existingSequences.contains(sequenceName)) {
             return;
@@ -159,6 +205,9 @@ public class SequencesImpl implements Sequences {
         lock.writeLock().lock();
         try {
             try {
+                if (existingSequences.contains(sequenceName)) {
+                    return;
+                }
                 // Create sequence in separate transaction because it's name is cached and we want to be sure it is created
                 // regardless of possible errors in the invoking code
                 String storeName = getDataStore(sequence);
@@ -185,12 +234,14 @@ public class SequencesImpl implements Sequences {
     }
 
     protected Object executeScript(Sequence sequence, String sqlScript) {
+        return executeStatements(sequence, splitScript(sqlScript));
+    }
+
+    protected Object executeStatements(Sequence sequence, List<String> sqlStatements) {
         JdbcTemplate jdbcTemplate = storeAwareLocator.getJdbcTemplate(getDataStore(sequence));
 
-        StringTokenizer tokenizer = new StringTokenizer(sqlScript, SequenceSupport.SQL_DELIMITER);
         Object value = null;
-        while (tokenizer.hasNext()) {
-            String sql = tokenizer.nextToken();
+        for (String sql : sqlStatements) {
             try {
                 Object result = jdbcTemplate.execute(sql, (PreparedStatementCallback<Object>) ps -> {
                     if (ps.execute()) {
@@ -210,6 +261,25 @@ public class SequencesImpl implements Sequences {
         return value;
     }
 
+    /**
+     * @return statements of a script for getting next or current value, split only once
+     */
+    protected List<String> getStatements(String sqlScript) {
+        return statements.computeIfAbsent(sqlScript, this::splitScript);
+    }
+
+    protected List<String> splitScript(String sqlScript) {
+        StringTokenizer tokenizer = new StringTokenizer(sqlScript, SequenceSupport.SQL_DELIMITER);
+        List<String> sqlStatements = new ArrayList<>(1);
+        while (tokenizer.hasNext()) {
+            sqlStatements.add(tokenizer.nextToken());
+        }
+        return Collections.unmodifiableList(sqlStatements);
+    }
+
+    protected ReadWriteLock getLock(Sequence sequence) {
+        return locks.computeIfAbsent(sequence.getName(), name -> new ReentrantReadWriteLock());
+    }
 
     protected SequenceSupport getSequenceSupport(Sequence sequence) {
         return dbmsSpecifics.getSequenceSupport(getDataStore(sequence));
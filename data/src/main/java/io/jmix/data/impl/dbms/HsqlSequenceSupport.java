@@ -49,6 +49,11 @@ public class HsqlSequenceSupport implements SequenceSupport {
         return "call next value for " + sequenceName;
     }
 
+    @Override
+    public String getNextValuesSql(String sequenceName, int count) {
+        return "select next value for " + sequenceName + " from unnest(sequence_array(1, " + count + ", 1))";
+    }
+
     @Override
     public String getCurrentValueSql(String sequenceName) {
         return "select START_WITH from INFORMATION_SCHEMA.SYSTEM_SEQUENCES where SEQUENCE_NAME = '"
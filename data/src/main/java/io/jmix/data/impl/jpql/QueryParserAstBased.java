@@ -43,6 +43,7 @@ public class QueryParserAstBased implements QueryParser {
     protected String query;
     protected QueryTree queryTree;
     protected QueryTreeAnalyzer queryAnalyzer;
+    protected QueryTreeCache queryTreeCache;
 
     protected static class EntityNameAndPath {
         String entityName;
@@ -65,7 +66,19 @@ public class QueryParserAstBased implements QueryParser {
         this.query = query;
     }
 
+    /**
+     * Creates a parser that takes the parsed tree from the given cache and puts it there after parsing.
+     * The cached tree is shared between parsers and is never modified.
+     */
+    public QueryParserAstBased(DomainModel model, String query, QueryTreeCache queryTreeCache) {
+        this(model, query);
+        this.queryTreeCache = queryTreeCache;
+    }
+
     protected QueryTree getTree() {
+        if (queryTree == null && queryTreeCache != null) {
+            queryTree = queryTreeCache.get(model, query);
+        }
         if (queryTree == null) {
             try {
                 queryTree = new QueryTree(model, query);
@@ -76,6 +89,9 @@ public class QueryParserAstBased implements QueryParser {
             if (!errors.isEmpty()) {
                 throw new JpqlSyntaxException(format("Errors found for input JPQL:[%s]", StringUtils.strip(query)), errors);
             }
+            if (queryTreeCache != null) {
+                queryTreeCache.put(model, query, queryTree);
+            }
         }
         return queryTree;
     }
@@ -209,8 +225,11 @@ public class QueryParserAstBased implements QueryParser {
         return getTree().getAstSelectedNodes()
                 .map(node -> {
                     TreeToQuery toQuery = new TreeToQuery();
-                    node.setSkipSeparator(true);
-                    new TreeVisitor().visit(node, toQuery);
+                    // the tree can be shared with other parsers through the cache
+                    synchronized (node) {
+                        node.setSkipSeparator(true);
+                        new TreeVisitor().visit(node, toQuery);
+                    }
                     return toQuery.getQueryString();
                 })
                 .collect(Collectors.toList());
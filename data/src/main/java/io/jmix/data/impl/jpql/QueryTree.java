@@ -56,6 +56,22 @@ public class QueryTree {
         new TreeVisitor().visit(tree, idVarSelector);
     }
 
+    protected QueryTree(DomainModel model, String queryString, CommonTree tree) {
+        this.model = model;
+        this.queryString = queryString;
+        this.tree = tree;
+
+        this.idVarSelector = new IdVarSelector(model);
+        new TreeVisitor().visit(tree, idVarSelector);
+    }
+
+    /**
+     * @return deep copy of this tree which can be modified independently of the original one
+     */
+    public QueryTree copy() {
+        return new QueryTree(model, queryString, copyNode(tree));
+    }
+
     public DomainModel getModel() {
         return model;
     }
@@ -154,6 +170,18 @@ public class QueryTree {
         return visitor;
     }
 
+    protected static CommonTree copyNode(CommonTree node) {
+        CommonTree copy = (CommonTree) node.dupNode();
+        // dupNode() of custom nodes copies children only partially, so replace them with full copies
+        while (copy.getChildCount() > 0) {
+            copy.deleteChild(copy.getChildCount() - 1);
+        }
+        for (int i = 0; i < node.getChildCount(); i++) {
+            copy.addChild(copyNode((CommonTree) node.getChild(i)));
+        }
+        return copy;
+    }
+
     @SuppressWarnings("unchecked")
     protected <T> Stream<T> generateChildrenByClass(CommonTree commonTree, Class<T> clazz) {
         return commonTree.getChildren().stream()
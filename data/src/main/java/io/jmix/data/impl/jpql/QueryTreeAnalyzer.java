@@ -179,6 +179,30 @@ public class QueryTreeAnalyzer {
         return false;
     }
 
+    /**
+     * @return true if the condition compares a path with the named parameter using {@code =} or {@code <>},
+     * e.g. {@code e.name = :name}
+     */
+    public boolean isConditionPathComparedWithParameter(SimpleConditionNode condition, String parameterName) {
+        if (condition.getChildCount() != 3) {
+            return false;
+        }
+        String operator = condition.getChild(1).getText();
+        if (!"=".equals(operator) && !"<>".equals(operator)) {
+            return false;
+        }
+        Tree left = condition.getChild(0);
+        Tree right = condition.getChild(2);
+        return left instanceof PathNode && isNamedParameter(right, parameterName)
+                || right instanceof PathNode && isNamedParameter(left, parameterName);
+    }
+
+    protected boolean isNamedParameter(Tree node, String parameterName) {
+        return node instanceof ParameterNode
+                && ((ParameterNode) node).isNamed()
+                && parameterName.equals(((ParameterNode) node).getParameterReference());
+    }
+
     public boolean isVariablePathNode(PathNode pathNode) {
         return pathNode.getChildCount() == 0;
     }
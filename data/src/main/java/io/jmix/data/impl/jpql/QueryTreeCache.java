@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.data.impl.jpql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import javax.annotation.Nullable;
+
+/**
+ * Size-bounded thread-safe cache of parsed {@link QueryTree}s keyed by the query string and the {@link DomainModel}
+ * instance.
+ * <p>
+ * Cached trees are shared snapshots and must never be modified. Code that needs to change the tree must work with
+ * a {@link QueryTree#copy()}.
+ */
+public class QueryTreeCache {
+
+    protected final Cache<Key, QueryTree> trees;
+
+    public QueryTreeCache(long maximumSize) {
+        this.trees = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * @return parsed tree for the given query or null if it is not cached
+     */
+    @Nullable
+    public QueryTree get(DomainModel model, String query) {
+        return trees.getIfPresent(new Key(model, query));
+    }
+
+    /**
+     * Associates a successfully parsed and validated tree with the given query. The tree must not be modified
+     * after this call.
+     */
+    public void put(DomainModel model, String query, QueryTree queryTree) {
+        trees.put(new Key(model, query), queryTree);
+    }
+
+    /**
+     * Discards all cached trees.
+     */
+    public void invalidateAll() {
+        trees.invalidateAll();
+    }
+
+    public long size() {
+        return trees.size();
+    }
+
+    protected static final class Key {
+        private final DomainModel model;
+        private final String query;
+        private final int hashCode;
+
+        Key(DomainModel model, String query) {
+            this.model = model;
+            this.query = query;
+            this.hashCode = 31 * System.identityHashCode(model) + query.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+            return model == key.model && hashCode == key.hashCode && query.equals(key.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
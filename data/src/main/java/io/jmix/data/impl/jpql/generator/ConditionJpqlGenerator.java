@@ -17,15 +17,29 @@
 package io.jmix.data.impl.jpql.generator;
 
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import io.jmix.core.querycondition.*;
+import io.jmix.data.DataProperties;
 import io.jmix.data.QueryParser;
 import io.jmix.data.QueryTransformer;
 import io.jmix.data.QueryTransformerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Modifies JPQL query according to the tree of conditions.
  * See {@link #processQuery(String, ConditionGenerationContext)} method.
+ * <p>
+ * Modified queries are cached by the source query, entity and the structure of the conditions tree, if all
+ * conditions are handled by the standard generators. The size of the cache is defined by
+ * {@link DataProperties#getConditionJpqlCacheSize()}.
  */
 @Component("data_ConditionJpqlGenerator")
 public class ConditionJpqlGenerator {
@@ -34,6 +48,28 @@ public class ConditionJpqlGenerator {
     protected QueryTransformerFactory queryTransformerFactory;
     @Autowired
     protected ConditionGeneratorResolver resolver;
+    @Autowired
+    protected DataProperties properties;
+
+    /**
+     * Generators producing JPQL that depends only on the condition structure and the generation context.
+     */
+    protected static final Set<Class<?>> STRUCTURAL_GENERATORS = ImmutableSet.of(
+            LogicalConditionGenerator.class,
+            JpqlConditionGenerator.class,
+            PropertyConditionGenerator.class,
+            KeyValuePropertyConditionGenerator.class);
+
+    protected Cache<String, String> queries;
+
+    @PostConstruct
+    protected void init() {
+        if (properties.getConditionJpqlCacheSize() > 0) {
+            queries = CacheBuilder.newBuilder()
+                    .maximumSize(properties.getConditionJpqlCacheSize())
+                    .build();
+        }
+    }
 
     /**
      * Returns a JPQL query modified according to the given tree of conditions.
@@ -46,7 +82,6 @@ public class ConditionJpqlGenerator {
         if (context.getCondition() == null) {
             return query;
         }
-        QueryTransformer transformer = queryTransformerFactory.transformer(query);
         QueryParser parser = queryTransformerFactory.parser(query);
         context.setEntityAlias(parser.getEntityAlias());
 
@@ -54,15 +89,119 @@ public class ConditionJpqlGenerator {
             context.setSelectedExpressions(parser.getSelectedExpressionsList());
         }
 
+        String cacheKey = queries == null ? null : createCacheKey(query, context);
+        if (cacheKey != null) {
+            String result = queries.getIfPresent(cacheKey);
+            if (result != null) {
+                return result;
+            }
+        }
+
         String joins = generateJoins(context);
         String where = generateWhere(context);
 
+        QueryTransformer transformer = queryTransformerFactory.transformer(query);
         if (!Strings.isNullOrEmpty(joins)) {
             transformer.addJoinAndWhere(joins, where);
         } else {
             transformer.addWhere(where);
         }
-        return transformer.getResult();
+        String result = transformer.getResult();
+
+        if (cacheKey != null) {
+            queries.put(cacheKey, result);
+        }
+        return result;
+    }
+
+    /**
+     * Discards all cached queries.
+     */
+    public void clearCache() {
+        if (queries != null) {
+            queries.invalidateAll();
+        }
+    }
+
+    /**
+     * @return key describing everything the generated JPQL depends on, or null if it cannot be cached
+     */
+    @Nullable
+    protected String createCacheKey(String query, ConditionGenerationContext context) {
+        StringBuilder sb = new StringBuilder();
+        appendKeyPart(sb, context.getEntityName());
+        List<String> valueProperties = context.getValueProperties();
+        if (valueProperties == null) {
+            sb.append('-');
+        } else {
+            sb.append('[');
+            for (String valueProperty : valueProperties) {
+                appendKeyPart(sb, valueProperty);
+            }
+            sb.append(']');
+        }
+        appendKeyPart(sb, query);
+        return appendConditionKey(sb, context) ? sb.toString() : null;
+    }
+
+    protected boolean appendConditionKey(StringBuilder sb, ConditionGenerationContext context) {
+        Condition condition = context.getCondition();
+        ConditionGenerator generator = resolver.getConditionGenerator(context);
+        if (!STRUCTURAL_GENERATORS.contains(generator.getClass())) {
+            return false;
+        }
+
+        if (condition instanceof LogicalCondition) {
+            LogicalCondition logical = (LogicalCondition) condition;
+            sb.append("logical");
+            appendKeyPart(sb, logical.getType());
+            sb.append('(');
+            for (Condition child : logical.getConditions()) {
+                ConditionGenerationContext childContext = new ConditionGenerationContext(child);
+                childContext.copy(context);
+                if (!appendConditionKey(sb, childContext)) {
+                    return false;
+                }
+            }
+            sb.append(')');
+            return true;
+
+        } else if (condition instanceof JpqlCondition) {
+            JpqlCondition jpql = (JpqlCondition) condition;
+            sb.append("jpql");
+            appendKeyPart(sb, jpql.getJoin());
+            appendKeyPart(sb, jpql.getWhere());
+            return true;
+
+        } else if (condition instanceof PropertyCondition) {
+            PropertyCondition property = (PropertyCondition) condition;
+            // the operation of a date interval condition is generated from the parameter value
+            if (PropertyConditionUtils.isInIntervalOperation(property)) {
+                return false;
+            }
+            sb.append("property");
+            appendKeyPart(sb, property.getProperty());
+            appendKeyPart(sb, property.getOperation());
+            appendKeyPart(sb, property.getParameterName());
+            if (PropertyConditionUtils.isUnaryOperation(property)) {
+                appendKeyPart(sb, property.getParameterValue());
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Appends a component of the cache key prefixed by its length, so that components containing separators
+     * or JPQL fragments cannot make keys of different conditions equal.
+     */
+    protected void appendKeyPart(StringBuilder sb, @Nullable Object part) {
+        if (part == null) {
+            sb.append('-');
+        } else {
+            String string = part.toString();
+            sb.append(string.length()).append(':').append(string);
+        }
     }
 
     protected String generateJoins(ConditionGenerationContext context) {
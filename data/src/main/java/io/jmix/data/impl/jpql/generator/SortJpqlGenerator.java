@@ -89,6 +89,40 @@ public class SortJpqlGenerator {
         return transformQuery(queryString, sortExpressions, asc);
     }
 
+    /**
+     * Returns expressions to compare with the last loaded row values for keyset pagination: one expression for each
+     * sort order followed by the primary key expression if the primary key is not sorted explicitly.
+     *
+     * @throws UnsupportedOperationException if the sort cannot be used for keyset pagination
+     */
+    public List<String> getKeysetExpressions(String entityName, Sort sort) {
+        MetaClass metaClass = metadata.getClass(entityName);
+        String pkName = metadataTools.getPrimaryKeyName(metaClass);
+        if (pkName == null || metadataTools.hasCompositePrimaryKey(metaClass)) {
+            throw new UnsupportedOperationException(
+                    String.format("Keyset pagination requires a simple primary key, %s does not have it", metaClass));
+        }
+
+        List<String> keysetExpressions = new ArrayList<>();
+        for (Sort.Order order : sort.getOrders()) {
+            MetaPropertyPath metaPropertyPath = metaClass.getPropertyPath(order.getProperty());
+            checkNotNullArgument(metaPropertyPath, "Could not resolve property path '%s' in '%s'", order.getProperty(), metaClass);
+
+            String expression = String.format("{E}.%s", metaPropertyPath.toString());
+            List<String> sortExpressions = getPropertySortExpressions(metaPropertyPath, order.getDirection() == Sort.Direction.ASC);
+            if (metaPropertyPath.getRange().isClass() || !sortExpressions.equals(Collections.singletonList(expression))) {
+                throw new UnsupportedOperationException(
+                        String.format("Property '%s' cannot be used for keyset pagination", order.getProperty()));
+            }
+            keysetExpressions.add(expression);
+        }
+        String pkExpression = String.format("{E}.%s", pkName);
+        if (!keysetExpressions.contains(pkExpression)) {
+            keysetExpressions.add(pkExpression);
+        }
+        return keysetExpressions;
+    }
+
     protected List<String> getUniqueSortExpression(List<String> sortExpressions, MetaClass metaClass, boolean asc) {
         String pkName = metadataTools.getPrimaryKeyName(metaClass);
 
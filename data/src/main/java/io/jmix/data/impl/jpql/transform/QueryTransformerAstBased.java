@@ -45,12 +45,22 @@ public class QueryTransformerAstBased implements QueryTransformer {
     protected QueryTreeTransformer queryTransformer;
     protected QueryTreeAnalyzer queryAnalyzer;
     protected Set<String> addedParams = new HashSet<>();
+    protected QueryTreeCache queryTreeCache;
 
     public QueryTransformerAstBased(DomainModel model, String query) {
         this.model = model;
         this.query = query;
     }
 
+    /**
+     * Creates a transformer that starts from the parsed tree stored in the given cache. The transformer modifies
+     * its own copy of the tree, so the cached one stays intact.
+     */
+    public QueryTransformerAstBased(DomainModel model, String query, QueryTreeCache queryTreeCache) {
+        this(model, query);
+        this.queryTreeCache = queryTreeCache;
+    }
+
     protected QueryTreeTransformer getTransformer() {
         if (queryTransformer == null) {
             queryTransformer = new QueryTreeTransformer(getTree());
@@ -67,6 +77,11 @@ public class QueryTransformerAstBased implements QueryTransformer {
 
     protected QueryTree getTree() {
         if (queryTree == null) {
+            QueryTree cachedTree = queryTreeCache != null ? queryTreeCache.get(model, query) : null;
+            if (cachedTree != null) {
+                queryTree = cachedTree.copy();
+                return queryTree;
+            }
             try {
                 queryTree = new QueryTree(model, query);
             } catch (JPA2RecognitionException e) {
@@ -76,6 +91,10 @@ public class QueryTransformerAstBased implements QueryTransformer {
             if (!errors.isEmpty()) {
                 throw new JpqlSyntaxException(format("Errors found for input JPQL:[%s]", StringUtils.strip(query)), errors);
             }
+            if (queryTreeCache != null) {
+                queryTreeCache.put(model, query, queryTree);
+                queryTree = queryTree.copy();
+            }
         }
         return queryTree;
     }
@@ -247,6 +266,18 @@ public class QueryTransformerAstBased implements QueryTransformer {
         return true;
     }
 
+    @Override
+    public boolean replaceNullComparisons(String parameterName) {
+        List<SimpleConditionNode> conditions = getAnalyzer().getConditions().stream()
+                .filter(condition -> getAnalyzer().isConditionPathComparedWithParameter(condition, parameterName))
+                .collect(Collectors.toList());
+        if (conditions.isEmpty()) {
+            return false;
+        }
+        getTransformer().replaceNullComparisons(conditions);
+        return true;
+    }
+
     protected CommonTree parseWhereCondition(String whereCondition) {
         try {
             return Parser.parseWhereClause("where " + whereCondition);
@@ -320,6 +320,17 @@ public class QueryTreeTransformer {
         }
     }
 
+    public void replaceNullComparisons(List<SimpleConditionNode> conditions) {
+        for (SimpleConditionNode condition : conditions) {
+            Tree pathNode = condition.getChild(0) instanceof PathNode ? condition.getChild(0) : condition.getChild(2);
+            boolean notEqual = "<>".equals(condition.getChild(1).getText());
+            condition.getChildren().clear();
+            condition.addChild(pathNode);
+            condition.addChild(createWord(notEqual ? "is not null" : "is null"));
+            condition.freshenParentAndChildIndexes();
+        }
+    }
+
     public void replaceSelectedEntityVariable(String newVariableName, PathNode pathNode) {
         if (pathNode != null) {
             pathNode.renameVariableTo(newVariableName);
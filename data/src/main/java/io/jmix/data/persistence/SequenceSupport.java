@@ -21,6 +21,8 @@
  */
 package io.jmix.data.persistence;
 
+import javax.annotation.Nullable;
+
 /**
  * Interface defining methods for managing database sequences.
  *
@@ -40,4 +42,13 @@ public interface SequenceSupport {
     String getNextValueSql(String sequenceName);
 
     String getCurrentValueSql(String sequenceName);
+
+    /**
+     * Returns a single statement selecting {@code count} next values of the sequence, one per row,
+     * or null if the database cannot do it in one statement.
+     */
+    @Nullable
+    default String getNextValuesSql(String sequenceName, int count) {
+        return null;
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package query_parser;
+
+import io.jmix.data.impl.jpql.DomainModel;
+import io.jmix.data.impl.jpql.JpqlSyntaxException;
+import io.jmix.data.impl.jpql.QueryParserAstBased;
+import io.jmix.data.impl.jpql.QueryTreeCache;
+import io.jmix.data.impl.jpql.model.EntityBuilder;
+import io.jmix.data.impl.jpql.model.JpqlEntityModel;
+import io.jmix.data.impl.jpql.transform.QueryTransformerAstBased;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryTreeCacheTest {
+
+    @Test
+    public void testParserReusesCachedTree() {
+        DomainModel model = prepareDomainModel();
+        QueryTreeCache cache = new QueryTreeCache(10);
+        String query = "select u from sec_User u where u.login = :login";
+
+        QueryParserAstBased parser = new QueryParserAstBased(model, query, cache);
+        assertEquals("sec_User", parser.getEntityName());
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(model, query));
+
+        parser = new QueryParserAstBased(model, query, cache);
+        assertEquals("u", parser.getEntityAlias());
+        assertTrue(parser.getParamNames().contains("login"));
+        assertEquals(1, cache.size());
+
+        assertNull(cache.get(prepareDomainModel(), query));
+    }
+
+    @Test
+    public void testTransformerDoesNotModifyCachedTree() {
+        DomainModel model = prepareDomainModel();
+        QueryTreeCache cache = new QueryTreeCache(10);
+        String query = "select u from sec_User u where u.login = :login";
+
+        QueryTransformerAstBased transformer = new QueryTransformerAstBased(model, query, cache);
+        transformer.addWhere("{E}.int1 = :int1");
+        assertTrue(transformer.getResult().contains("u.int1 = :int1"));
+
+        transformer = new QueryTransformerAstBased(model, query, cache);
+        transformer.replaceWithCount();
+        assertTrue(transformer.getResult().contains("count(u)"));
+
+        transformer = new QueryTransformerAstBased(model, query, cache);
+        String result = transformer.getResult();
+        assertFalse(result.contains("int1"));
+        assertFalse(result.contains("count"));
+
+        QueryParserAstBased parser = new QueryParserAstBased(model, query, cache);
+        assertEquals(1, parser.getParamNames().size());
+    }
+
+    @Test
+    public void testInvalidQueryIsNotCached() {
+        DomainModel model = prepareDomainModel();
+        QueryTreeCache cache = new QueryTreeCache(10);
+
+        QueryParserAstBased parser = new QueryParserAstBased(model, "select u from sec_Constraint", cache);
+        assertThrows(JpqlSyntaxException.class, parser::getEntityAlias);
+        assertEquals(0, cache.size());
+    }
+
+    private DomainModel prepareDomainModel() {
+        EntityBuilder builder = EntityBuilder.create();
+        builder.startNewEntity("sec_User");
+        builder.addStringAttribute("login");
+        builder.addSingleValueAttribute(Integer.class, "int1");
+        builder.addReferenceAttribute("group", "sec_Group");
+        JpqlEntityModel userEntity = builder.produce();
+
+        JpqlEntityModel groupEntity = builder.produceImmediately("sec_Group", "name");
+
+        return new DomainModel(userEntity, groupEntity);
+    }
+}
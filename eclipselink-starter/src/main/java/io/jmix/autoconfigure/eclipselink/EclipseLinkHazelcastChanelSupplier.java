@@ -22,21 +22,31 @@ import io.jmix.eclipselink.impl.support.EclipseLinkChannelSupplier;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
 
+/**
+ * Sends cache coordination messages through a Hazelcast topic. Messages with byte array payloads are published
+ * as the bytes only, so Hazelcast does not serialize message headers.
+ */
 public class EclipseLinkHazelcastChanelSupplier implements EclipseLinkChannelSupplier {
 
     protected final SubscribableChannel messageChannel;
 
     protected static class HazelcastMessageChannel implements SubscribableChannel {
-        protected final ITopic<Message<?>> topic;
+        protected final ITopic<Object> topic;
 
-        public HazelcastMessageChannel(ITopic<Message<?>> topic) {
+        public HazelcastMessageChannel(ITopic<Object> topic) {
             this.topic = topic;
         }
 
         @Override
         public boolean subscribe(MessageHandler handler) {
-            topic.addMessageListener(message -> handler.handleMessage(message.getMessageObject()));
+            topic.addMessageListener(message -> {
+                Object messageObject = message.getMessageObject();
+                handler.handleMessage(messageObject instanceof Message
+                        ? (Message<?>) messageObject
+                        : MessageBuilder.withPayload(messageObject).build());
+            });
             return true;
         }
 
@@ -47,19 +57,23 @@ public class EclipseLinkHazelcastChanelSupplier implements EclipseLinkChannelSup
 
         @Override
         public boolean send(Message<?> message) {
-            topic.publish(message);
+            topic.publish(getPublishedObject(message));
             return true;
         }
 
         @Override
         public boolean send(Message<?> message, long timeout) {
-            topic.publish(message);
+            topic.publish(getPublishedObject(message));
             return true;
         }
+
+        protected Object getPublishedObject(Message<?> message) {
+            return message.getPayload() instanceof byte[] ? message.getPayload() : message;
+        }
     }
 
     public EclipseLinkHazelcastChanelSupplier(HazelcastInstance hazelcastInstance) {
-        ITopic<Message<?>> topic = hazelcastInstance.getTopic("jmix-eclipselink-topic");
+        ITopic<Object> topic = hazelcastInstance.getTopic("jmix-eclipselink-topic");
         messageChannel = new HazelcastMessageChannel(topic);
     }
 
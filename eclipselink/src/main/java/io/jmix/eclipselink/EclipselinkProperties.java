@@ -24,12 +24,187 @@ import org.springframework.boot.context.properties.bind.DefaultValue;
 @ConstructorBinding
 public class EclipselinkProperties {
     boolean queryCacheEnabled;
+    boolean queryCacheInvalidationByIds;
+    int transformedQueryCacheSize;
+    boolean queryCacheBatchLoading;
+    int fetchGroupCacheSize;
+    boolean jdbcBatchWriting;
+    int jdbcBatchWritingSize;
+    int cursorFetchSize;
+    int parallelLoadingThreads;
+    int jpqlParseCacheSize;
+    int statementCacheSize;
+    boolean canonicalizeNullParameters;
+    long cacheCoordinationBatchWindow;
+    int cacheCoordinationBatchSize;
+    boolean cacheCoordinationAsync;
+    int cacheCoordinationQueueCapacity;
+    long cacheCoordinationQueueTimeout;
 
-    public EclipselinkProperties(@DefaultValue("true") boolean queryCacheEnabled) {
+    public EclipselinkProperties(
+            @DefaultValue("true") boolean queryCacheEnabled,
+            @DefaultValue("1000") int transformedQueryCacheSize,
+            @DefaultValue("true") boolean queryCacheBatchLoading,
+            @DefaultValue("1000") int fetchGroupCacheSize,
+            @DefaultValue("false") boolean jdbcBatchWriting,
+            @DefaultValue("100") int jdbcBatchWritingSize,
+            @DefaultValue("500") int cursorFetchSize,
+            @DefaultValue("0") int parallelLoadingThreads,
+            @DefaultValue("1000") int jpqlParseCacheSize,
+            @DefaultValue("0") int statementCacheSize,
+            @DefaultValue("true") boolean canonicalizeNullParameters,
+            @DefaultValue("0") long cacheCoordinationBatchWindow,
+            @DefaultValue("100") int cacheCoordinationBatchSize,
+            @DefaultValue("true") boolean cacheCoordinationAsync,
+            @DefaultValue("10000") int cacheCoordinationQueueCapacity,
+            @DefaultValue("100") long cacheCoordinationQueueTimeout,
+            @DefaultValue("false") boolean queryCacheInvalidationByIds) {
         this.queryCacheEnabled = queryCacheEnabled;
+        this.transformedQueryCacheSize = transformedQueryCacheSize;
+        this.queryCacheBatchLoading = queryCacheBatchLoading;
+        this.fetchGroupCacheSize = fetchGroupCacheSize;
+        this.jdbcBatchWriting = jdbcBatchWriting;
+        this.jdbcBatchWritingSize = jdbcBatchWritingSize;
+        this.cursorFetchSize = cursorFetchSize;
+        this.parallelLoadingThreads = parallelLoadingThreads;
+        this.jpqlParseCacheSize = jpqlParseCacheSize;
+        this.statementCacheSize = statementCacheSize;
+        this.canonicalizeNullParameters = canonicalizeNullParameters;
+        this.cacheCoordinationBatchWindow = cacheCoordinationBatchWindow;
+        this.cacheCoordinationBatchSize = cacheCoordinationBatchSize;
+        this.cacheCoordinationAsync = cacheCoordinationAsync;
+        this.cacheCoordinationQueueCapacity = cacheCoordinationQueueCapacity;
+        this.cacheCoordinationQueueTimeout = cacheCoordinationQueueTimeout;
+        this.queryCacheInvalidationByIds = queryCacheInvalidationByIds;
     }
 
     public boolean isQueryCacheEnabled() {
         return queryCacheEnabled;
     }
+
+    /**
+     * @return whether updates of existing instances discard only those cached results of single-entity queries
+     * without joins and non-id conditions that contain the updated instances. Creation and deletion of instances
+     * always discard all cached queries of the entity.
+     */
+    public boolean isQueryCacheInvalidationByIds() {
+        return queryCacheInvalidationByIds;
+    }
+
+    /**
+     * @return whether entities for a query cache hit are loaded by batches of ids instead of one by one.
+     * Entities found in the shared entity cache are taken from it in both cases.
+     */
+    public boolean isQueryCacheBatchLoading() {
+        return queryCacheBatchLoading;
+    }
+
+    /**
+     * @return maximum number of JPQL transformation results cached for repeated queries. 0 disables the cache.
+     */
+    public int getTransformedQueryCacheSize() {
+        return transformedQueryCacheSize;
+    }
+
+    /**
+     * @return maximum number of fetch group descriptions calculated for fetch plans and queries that are kept
+     * for reuse. 0 disables the cache.
+     */
+    public int getFetchGroupCacheSize() {
+        return fetchGroupCacheSize;
+    }
+
+    /**
+     * @return whether insert, update and delete statements of one flush are sent to the database in JDBC batches.
+     * Reads and parameter binding are not affected.
+     */
+    public boolean isJdbcBatchWriting() {
+        return jdbcBatchWriting;
+    }
+
+    /**
+     * @return maximum number of statements in one JDBC batch if {@link #isJdbcBatchWriting()} is true
+     */
+    public int getJdbcBatchWritingSize() {
+        return jdbcBatchWritingSize;
+    }
+
+    /**
+     * @return JDBC fetch size and number of entities detached at once when entities are loaded as a stream
+     */
+    public int getCursorFetchSize() {
+        return cursorFetchSize;
+    }
+
+    /**
+     * @return number of threads loading batches of ids in parallel when entities are loaded by a large collection
+     * of ids. Each thread uses its own database connection. 0 disables parallel loading.
+     */
+    public int getParallelLoadingThreads() {
+        return parallelLoadingThreads;
+    }
+
+    /**
+     * @return maximum number of parsed JPQL queries kept by EclipseLink for a data store
+     * @see io.jmix.eclipselink.impl.QueryPreparationManager
+     */
+    public int getJpqlParseCacheSize() {
+        return jpqlParseCacheSize;
+    }
+
+    /**
+     * @return maximum number of prepared statements cached for a database connection. 0 disables the cache.
+     * @see io.jmix.eclipselink.impl.QueryPreparationManager
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * @return whether comparisons with null parameters are replaced with {@code is null} statements, so that
+     * queries with null parameters can be prepared and cached like other queries
+     * @see io.jmix.eclipselink.impl.QueryPreparationManager
+     */
+    public boolean isCanonicalizeNullParameters() {
+        return canonicalizeNullParameters;
+    }
+
+    /**
+     * @return time in milliseconds during which cache invalidations of committed transactions are collected
+     * and then sent to other cluster nodes in one message. 0 means that each transaction is sent separately.
+     */
+    public long getCacheCoordinationBatchWindow() {
+        return cacheCoordinationBatchWindow;
+    }
+
+    /**
+     * @return maximum number of committed transactions whose cache invalidations are collected in one message
+     */
+    public int getCacheCoordinationBatchSize() {
+        return cacheCoordinationBatchSize;
+    }
+
+    /**
+     * @return whether cache coordination messages are sent to other cluster nodes by a separate thread instead of
+     * the committing thread
+     */
+    public boolean isCacheCoordinationAsync() {
+        return cacheCoordinationAsync;
+    }
+
+    /**
+     * @return maximum number of cache coordination messages waiting to be sent if {@link #isCacheCoordinationAsync()}
+     * is true
+     */
+    public int getCacheCoordinationQueueCapacity() {
+        return cacheCoordinationQueueCapacity;
+    }
+
+    /**
+     * @return time in milliseconds the committing thread waits for free space in the full queue of cache
+     * coordination messages before sending the message itself
+     */
+    public long getCacheCoordinationQueueTimeout() {
+        return cacheCoordinationQueueTimeout;
+    }
 }
@@ -258,6 +258,18 @@ public class EclipselinkPersistenceSupport implements ApplicationContextAware {
         }
     }
 
+    /**
+     * @return true if the persistent instance was updated or removed in the current transaction
+     */
+    protected boolean isChanged(Object entity) {
+        if (getEntityEntry(entity).isRemoved()) {
+            return true;
+        }
+        AttributeChangeListener changeListener =
+                (AttributeChangeListener) ((ChangeTracker) entity)._persistence_getPropertyChangeListener();
+        return changeListener != null && changeListener.hasChanges();
+    }
+
     protected void traverseEntities(ContainerResourceHolder container, EntityVisitor visitor, boolean warnAboutImplicitFlush) {
         beforeStore(container, visitor, container.getAllInstances(), createEntitySet(), warnAboutImplicitFlush);
     }
@@ -492,6 +504,7 @@ public class EclipselinkPersistenceSupport implements ApplicationContextAware {
 
             Collection<Object> instances = container.getAllInstances();
             Set<String> typeNames = new HashSet<>();
+            Set<String> changedTypeNames = new HashSet<>();
             for (Object instance : instances) {
                 if (instance instanceof Entity) {
 
@@ -512,6 +525,8 @@ public class EclipselinkPersistenceSupport implements ApplicationContextAware {
                     MetaClass metaClass = metadata.getClass(instance.getClass());
                     if (getEntityEntry(instance).isNew()) {
                         typeNames.add(metaClass.getName());
+                    } else if (!readOnly && isChanged(instance)) {
+                        changedTypeNames.add(metaClass.getName());
                     }
                     fireBeforeDetachEntityListener(instance, metaClass.getStore().getName());
                 }
@@ -529,6 +544,8 @@ public class EclipselinkPersistenceSupport implements ApplicationContextAware {
                     }
                 }
                 queryCacheManager.invalidate(typeNames);
+                changedTypeNames.removeAll(typeNames);
+                queryCacheManager.invalidateValues(changedTypeNames);
 
                 List<EntityChangedEventInfo> eventsInfo = entityChangedEventManager.collect(container.getAllInstances());
 
@@ -67,7 +67,9 @@ public class EntityChangedEventManager {
 
     private static class AccumulatedInfoHolder extends ResourceHolderSupport {
 
-        List<EntityChangedEventInfo> accumulatedList;
+        List<EntityChangedEventInfo> accumulatedList = new ArrayList<>();
+        // accumulated infos by entity instance
+        Map<Object, EntityChangedEventInfo> accumulatedInfos = new IdentityHashMap<>();
     }
 
     private static class AccumulatedInfoSynchronization extends ResourceHolderSynchronization<AccumulatedInfoHolder, String> {
@@ -94,32 +96,37 @@ public class EntityChangedEventManager {
         log.trace("beforeFlush {}", instances);
         List<EntityChangedEventInfo> infoList = internalCollect(instances);
         AccumulatedInfoHolder holder = getAccumulatedInfoHolder();
-        holder.accumulatedList = merge(holder.accumulatedList, infoList);
+        merge(holder.accumulatedList, holder.accumulatedInfos, infoList);
     }
 
-    private List<EntityChangedEventInfo> merge(Collection<EntityChangedEventInfo> collection1, Collection<EntityChangedEventInfo> collection2) {
-        List<EntityChangedEventInfo> list1 = collection1 != null ? new ArrayList<>(collection1) : new ArrayList<>();
-        Collection<EntityChangedEventInfo> list2 = collection2 != null ? collection2 : Collections.emptyList();
-
-        for (EntityChangedEventInfo info2 : list2) {
-            Optional<EntityChangedEventInfo> opt = list1.stream()
-                    .filter(info1 -> info1.getEntity() == info2.getEntity())
-                    .findAny();
-            if (opt.isPresent()) {
-                opt.get().mergeWith(info2);
+    /**
+     * Merges infos into the list, combining infos of the same entity instance.
+     *
+     * @param list  list to merge into, keeps the order of entities
+     * @param infos index of the list elements by entity instance, updated together with the list
+     * @param infosToMerge infos to merge
+     */
+    private void merge(List<EntityChangedEventInfo> list, Map<Object, EntityChangedEventInfo> infos,
+                       Collection<EntityChangedEventInfo> infosToMerge) {
+        for (EntityChangedEventInfo info : infosToMerge) {
+            EntityChangedEventInfo existingInfo = infos.get(info.getEntity());
+            if (existingInfo != null) {
+                existingInfo.mergeWith(info);
             } else {
-                list1.add(info2);
+                list.add(info);
+                infos.put(info.getEntity(), info);
             }
         }
-        log.trace("merged {}", list1);
-        return list1;
+        log.trace("merged {}", list);
     }
 
     public List<EntityChangedEventInfo> collect(Collection<Object> entities) {
         log.trace("collect {}", entities);
         AccumulatedInfoHolder holder = getAccumulatedInfoHolder();
         List<EntityChangedEventInfo> infoList = internalCollect(entities);
-        return merge(holder.accumulatedList, infoList);
+        List<EntityChangedEventInfo> result = new ArrayList<>(holder.accumulatedList);
+        merge(result, new IdentityHashMap<>(holder.accumulatedInfos), infoList);
+        return result;
     }
 
     public List<EntityChangedEventInfo> internalCollect(Collection<Object> entities) {
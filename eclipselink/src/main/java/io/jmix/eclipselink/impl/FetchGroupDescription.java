@@ -56,4 +56,12 @@ public class FetchGroupDescription {
     public boolean hasBatches() {
         return batches;
     }
+
+    /**
+     * Makes the description unmodifiable, so it can be shared between queries.
+     */
+    public void freeze() {
+        fetchGroupAttributes = Collections.unmodifiableSet(fetchGroupAttributes);
+        fetchHints = Collections.unmodifiableMap(fetchHints);
+    }
 }
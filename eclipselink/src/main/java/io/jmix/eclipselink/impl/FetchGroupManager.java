@@ -16,6 +16,8 @@
 
 package io.jmix.eclipselink.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.jmix.core.*;
 import io.jmix.core.common.util.Preconditions;
 import io.jmix.core.metamodel.model.MetaClass;
@@ -24,6 +26,7 @@ import io.jmix.core.metamodel.model.MetaPropertyPath;
 import io.jmix.core.metamodel.model.Range;
 import io.jmix.data.QueryParser;
 import io.jmix.data.QueryTransformerFactory;
+import io.jmix.eclipselink.EclipselinkProperties;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.persistence.config.QueryHints;
 import org.eclipse.persistence.jpa.JpaQuery;
@@ -37,6 +40,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.ClassUtils;
 
 import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -61,6 +65,20 @@ public class FetchGroupManager {
     @Autowired
     private QueryTransformerFactory queryTransformerFactory;
 
+    @Autowired
+    private EclipselinkProperties properties;
+
+    private Cache<DescriptionKey, CachedDescription> descriptions;
+
+    @PostConstruct
+    private void init() {
+        if (properties.getFetchGroupCacheSize() > 0) {
+            descriptions = CacheBuilder.newBuilder()
+                    .maximumSize(properties.getFetchGroupCacheSize())
+                    .build();
+        }
+    }
+
     public void setFetchPlan(JpaQuery query, String queryString, @Nullable FetchPlan fetchPlan, boolean singleResultExpected) {
         Preconditions.checkNotNullArgument(query, "query is null");
         if (fetchPlan != null) {
@@ -130,12 +148,91 @@ public class FetchGroupManager {
         }
     }
 
+    /**
+     * Returns the description of fetch group and fetch hints for the given query and fetch plan.
+     * <p>
+     * Descriptions are cached by the structure of the fetch plan, so copies of a plan created for each load share
+     * the same description. A description also depends on instance name fetch plans of the {@code dependsOn}
+     * references taken from {@link FetchPlanRepository}: if one of them has changed because the repository was
+     * reloaded, the whole cache is cleared. Returned descriptions are shared and cannot be modified.
+     */
     public FetchGroupDescription calculateFetchGroup(String queryString,
                                                      FetchPlan fetchPlan,
                                                      boolean singleResultExpected,
                                                      boolean useFetchGroup) {
+        if (descriptions == null) {
+            return doCalculateFetchGroup(queryString, fetchPlan, singleResultExpected, useFetchGroup, null);
+        }
+        DescriptionKey key = new DescriptionKey(queryString, getStructure(fetchPlan), singleResultExpected, useFetchGroup);
+        CachedDescription cached = descriptions.getIfPresent(key);
+        if (cached != null && !isActual(cached)) {
+            log.debug("Instance name fetch plans have been changed, clearing fetch group descriptions");
+            clearCache();
+            cached = null;
+        }
+        if (cached == null) {
+            Map<Class<?>, String> repositoryPlans = new HashMap<>();
+            FetchGroupDescription description =
+                    doCalculateFetchGroup(queryString, fetchPlan, singleResultExpected, useFetchGroup, repositoryPlans);
+            description.freeze();
+            cached = new CachedDescription(description, repositoryPlans);
+            descriptions.put(key, cached);
+        }
+        return cached.description;
+    }
+
+    /**
+     * Discards all cached fetch group descriptions.
+     */
+    public void clearCache() {
+        if (descriptions != null) {
+            descriptions.invalidateAll();
+        }
+    }
+
+    private boolean isActual(CachedDescription cached) {
+        for (Map.Entry<Class<?>, String> entry : cached.repositoryPlans.entrySet()) {
+            FetchPlan fetchPlan = fetchPlanRepository.getFetchPlan(metadata.getClass(entry.getKey()), FetchPlan.INSTANCE_NAME);
+            if (!entry.getValue().equals(getStructure(fetchPlan))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a string describing everything a fetch group description depends on in the fetch plan:
+     * entity classes, properties, their fetch modes and the partial flag.
+     */
+    private static String getStructure(FetchPlan fetchPlan) {
+        StringBuilder sb = new StringBuilder();
+        appendStructure(sb, fetchPlan);
+        return sb.toString();
+    }
+
+    private static void appendStructure(StringBuilder sb, FetchPlan fetchPlan) {
+        sb.append(fetchPlan.getEntityClass().getName());
+        if (fetchPlan.loadPartialEntities()) {
+            sb.append('!');
+        }
+        sb.append('[');
+        for (FetchPlanProperty property : fetchPlan.getProperties()) {
+            sb.append(property.getName()).append(':').append(property.getFetchMode());
+            if (property.getFetchPlan() != null) {
+                appendStructure(sb, property.getFetchPlan());
+            }
+            sb.append(',');
+        }
+        sb.append(']');
+    }
+
+    private FetchGroupDescription doCalculateFetchGroup(String queryString,
+                                                        FetchPlan fetchPlan,
+                                                        boolean singleResultExpected,
+                                                        boolean useFetchGroup,
+                                                        @Nullable Map<Class<?>, String> repositoryPlans) {
         Set<FetchGroupField> fetchGroupFields = new LinkedHashSet<>();
-        processFetchPlan(fetchPlan, null, fetchGroupFields, useFetchGroup);
+        processFetchPlan(fetchPlan, null, fetchGroupFields, useFetchGroup, repositoryPlans);
 
         FetchGroupDescription description = new FetchGroupDescription();
 
@@ -372,7 +469,8 @@ public class FetchGroupManager {
         return result;
     }
 
-    private void processFetchPlan(FetchPlan fetchPlan, @Nullable FetchGroupField parentField, Set<FetchGroupField> fetchGroupFields, boolean useFetchGroup) {
+    private void processFetchPlan(FetchPlan fetchPlan, @Nullable FetchGroupField parentField, Set<FetchGroupField> fetchGroupFields,
+                                  boolean useFetchGroup, @Nullable Map<Class<?>, String> repositoryPlans) {
         Class<?> entityClass = fetchPlan.getEntityClass();
         MetaClass entityMetaClass = metadata.getClass(entityClass);
 
@@ -418,7 +516,7 @@ public class FetchGroupManager {
                         throw new DevelopmentException(message);
                     }
 
-                    processFetchPlan(property.getFetchPlan(), field, fetchGroupFields, useFetchGroup);
+                    processFetchPlan(property.getFetchPlan(), field, fetchGroupFields, useFetchGroup, repositoryPlans);
                 }
             }
 
@@ -430,7 +528,10 @@ public class FetchGroupManager {
                     fetchGroupFields.add(field);
                     if (dependsOnMetaProp.getRange().isClass()) {
                         FetchPlan dependsOnPropFetchPlan = fetchPlanRepository.getFetchPlan(dependsOnMetaProp.getRange().asClass(), FetchPlan.INSTANCE_NAME);
-                        processFetchPlan(dependsOnPropFetchPlan, field, fetchGroupFields, useFetchGroup);
+                        if (repositoryPlans != null) {
+                            repositoryPlans.put(dependsOnPropFetchPlan.getEntityClass(), getStructure(dependsOnPropFetchPlan));
+                        }
+                        processFetchPlan(dependsOnPropFetchPlan, field, fetchGroupFields, useFetchGroup, repositoryPlans);
                     }
                 }
             }
@@ -542,4 +643,47 @@ public class FetchGroupManager {
             return path();
         }
     }
+
+    private static class CachedDescription {
+        private final FetchGroupDescription description;
+        private final Map<Class<?>, String> repositoryPlans;
+
+        CachedDescription(FetchGroupDescription description, Map<Class<?>, String> repositoryPlans) {
+            this.description = description;
+            this.repositoryPlans = repositoryPlans;
+        }
+    }
+
+    private static class DescriptionKey {
+        private final String queryString;
+        private final String fetchPlanStructure;
+        private final boolean singleResultExpected;
+        private final boolean useFetchGroup;
+        private final int hashCode;
+
+        DescriptionKey(String queryString, String fetchPlanStructure, boolean singleResultExpected, boolean useFetchGroup) {
+            this.queryString = queryString;
+            this.fetchPlanStructure = fetchPlanStructure;
+            this.singleResultExpected = singleResultExpected;
+            this.useFetchGroup = useFetchGroup;
+            this.hashCode = Objects.hash(queryString, fetchPlanStructure, singleResultExpected, useFetchGroup);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            DescriptionKey that = (DescriptionKey) o;
+            return singleResultExpected == that.singleResultExpected
+                    && useFetchGroup == that.useFetchGroup
+                    && fetchPlanStructure.equals(that.fetchPlanStructure)
+                    && queryString.equals(that.queryString);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
@@ -26,6 +26,8 @@ import io.jmix.core.common.util.ReflectionHelper;
 import io.jmix.core.entity.EntityValues;
 import io.jmix.core.metamodel.datatype.impl.EnumClass;
 import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.core.metamodel.model.MetaProperty;
+import io.jmix.core.metamodel.model.MetaPropertyPath;
 import io.jmix.data.*;
 import io.jmix.data.impl.EntityFetcher;
 import io.jmix.data.impl.QueryConstantHandler;
@@ -44,6 +46,7 @@ import org.eclipse.persistence.internal.jpa.EJBQueryImpl;
 import org.eclipse.persistence.jpa.JpaQuery;
 import org.eclipse.persistence.queries.DatabaseQuery;
 import org.eclipse.persistence.queries.ObjectLevelReadQuery;
+import org.eclipse.persistence.queries.ScrollableCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.BeanFactory;
@@ -76,6 +79,8 @@ public class JmixEclipseLinkQuery<E> implements JmixQuery<E> {
     protected QueryCacheManager queryCacheMgr;
     protected QueryTransformerFactory queryTransformerFactory;
     protected QueryHintsProcessor hintsProcessor;
+    protected TransformedQueryCache transformedQueryCache;
+    protected QueryPreparationManager queryPreparationManager;
     protected DbmsSpecifics dbmsSpecifics;
     protected Collection<QueryMacroHandler> macroHandlers;
     protected Collection<QueryConstantHandler> constantHandlers;
@@ -114,6 +119,8 @@ public class JmixEclipseLinkQuery<E> implements JmixQuery<E> {
         queryCacheMgr = beanFactory.getBean(QueryCacheManager.class);
         queryTransformerFactory = beanFactory.getBean(QueryTransformerFactory.class);
         hintsProcessor = beanFactory.getBean(QueryHintsProcessor.class);
+        transformedQueryCache = beanFactory.getBean(TransformedQueryCache.class);
+        queryPreparationManager = beanFactory.getBean(QueryPreparationManager.class);
         dbmsSpecifics = beanFactory.getBean(DbmsSpecifics.class);
         macroHandlers = beanFactory.getBeanProvider(QueryMacroHandler.class).stream().collect(Collectors.toList());
         constantHandlers = beanFactory.getBeanProvider(QueryConstantHandler.class).stream().collect(Collectors.toList());
@@ -162,6 +169,27 @@ public class JmixEclipseLinkQuery<E> implements JmixQuery<E> {
         return result;
     }
 
+    /**
+     * Executes the query and returns a cursor reading the result rows from the database on demand.
+     * <p>
+     * The query cache is not used and fetch plans are not applied to the read instances, it should be done by
+     * the caller. The cursor must be closed after use.
+     *
+     * @param fetchSize number of rows retrieved from the database in one round-trip
+     */
+    public ScrollableCursor getResultCursor(int fetchSize) {
+        logQueryString();
+
+        singleResultExpected = false;
+
+        JpaQuery<E> jpaQuery = getQuery();
+        jpaQuery.setHint(QueryHints.SCROLLABLE_CURSOR, HintValues.TRUE);
+        jpaQuery.setHint(QueryHints.JDBC_FETCH_SIZE, fetchSize);
+        preExecute(jpaQuery);
+
+        return (ScrollableCursor) jpaQuery.getSingleResult();
+    }
+
     @Override
     public TypedQuery<E> setMaxResults(int maxResult) {
         this.maxResults = maxResult;
@@ -487,7 +515,8 @@ public class JmixEclipseLinkQuery<E> implements JmixQuery<E> {
 
             addMacroParams(query);
 
-            // disable SQL caching to support "is null" generation
+            // disable SQL caching to support "is null" generation for null parameters remaining after the
+            // canonicalization, e.g. used in functions
             if (nullParam)
                 query.setHint(QueryHints.PREPARE, HintValues.FALSE);
 
@@ -559,6 +588,70 @@ public class JmixEclipseLinkQuery<E> implements JmixQuery<E> {
         String result = replaceConstants(queryString);
         result = expandMacros(result);
 
+        if (!transformedQueryCache.isEnabled()) {
+            return transformExpandedQueryString(result);
+        }
+
+        TransformedQueryCache.Key key = new TransformedQueryCache.Key(result,
+                firstResult != null && firstResult > 0, getParamsShape());
+        TransformedQueryCache.TransformedQuery transformedQuery = transformedQueryCache.get(key);
+        if (transformedQuery != null) {
+            for (Iterator<Param> iterator = params.iterator(); iterator.hasNext(); ) {
+                Param param = iterator.next();
+                if (transformedQuery.getRemovedParams().contains(param.name.toString())) {
+                    iterator.remove();
+                } else {
+                    param.value = getCaseInsensitiveValue(param.value);
+                }
+            }
+            return transformedQuery.getQueryString();
+        }
+
+        Set<String> paramNamesBefore = params.stream()
+                .map(param -> param.name.toString())
+                .collect(Collectors.toSet());
+
+        String transformed = transformExpandedQueryString(result);
+
+        params.forEach(param -> paramNamesBefore.remove(param.name.toString()));
+        transformedQueryCache.put(key, new TransformedQueryCache.TransformedQuery(transformed, paramNamesBefore));
+
+        return transformed;
+    }
+
+    /**
+     * Describes parameters in the way they affect the transformation, e.g. {@code name=null}.
+     */
+    private List<String> getParamsShape() {
+        List<String> shape = new ArrayList<>(params.size());
+        for (Param param : params) {
+            String kind;
+            if (param.value == null) {
+                kind = "null";
+            } else if (param.value instanceof Collection) {
+                kind = ((Collection<?>) param.value).isEmpty() ? "emptyCollection" : "collection";
+            } else if (param.value instanceof String && ((String) param.value).startsWith("(?i)")) {
+                kind = "caseInsensitive";
+            } else {
+                kind = "value";
+            }
+            shape.add((param.isNamedParam() ? "" : "?") + param.name + "=" + kind);
+        }
+        Collections.sort(shape);
+        return shape;
+    }
+
+    private Object getCaseInsensitiveValue(Object value) {
+        if (value instanceof String) {
+            String strValue = (String) value;
+            if (strValue.startsWith("(?i)")) {
+                return strValue.substring(4).toLowerCase();
+            }
+        }
+        return value;
+    }
+
+    private String transformExpandedQueryString(String result) {
         boolean rebuildParser = false;
         QueryParser parser = queryTransformerFactory.parser(result);
 
@@ -566,6 +659,7 @@ public class JmixEclipseLinkQuery<E> implements JmixQuery<E> {
         Class effectiveClass = extendedEntities.getEffectiveClass(entityName);
         MetaClass effectiveMetaClass = metadata.getClass(effectiveClass);
         String effectiveEntityName = effectiveMetaClass.getName();
+        String storeName = effectiveMetaClass.getStore().getName();
         if (!effectiveEntityName.equals(entityName)) {
             QueryTransformer transformer = queryTransformerFactory.transformer(result);
             transformer.replaceEntityName(effectiveEntityName);
@@ -574,7 +668,6 @@ public class JmixEclipseLinkQuery<E> implements JmixQuery<E> {
         }
 
         if (firstResult != null && firstResult > 0) {
-            String storeName = effectiveMetaClass.getStore().getName();
             DbmsFeatures dbmsFeatures = dbmsSpecifics.getDbmsFeatures(storeName);
             if (dbmsFeatures.useOrderByForPaging()) {
                 QueryTransformer transformer = queryTransformerFactory.transformer(result);
@@ -611,7 +704,7 @@ public class JmixEclipseLinkQuery<E> implements JmixQuery<E> {
             }
         }
 
-        result = replaceIsNullAndIsNotNullStatements(result);
+        result = replaceIsNullAndIsNotNullStatements(result, queryPreparationManager.isCanonicalizeNullParameters(storeName));
 
         return result;
     }
@@ -657,7 +750,7 @@ public class JmixEclipseLinkQuery<E> implements JmixQuery<E> {
                 String strValue = (String) param.value;
                 if (strValue.startsWith("(?i)")) {
                     result = replaceCaseInsensitiveParam(result, paramName);
-                    param.value = strValue.substring(4).toLowerCase();
+                    param.value = getCaseInsensitiveValue(strValue);
                 }
             }
             if (param.isNamedParam()) {
@@ -695,7 +788,7 @@ public class JmixEclipseLinkQuery<E> implements JmixQuery<E> {
         return transformer.getResult();
     }
 
-    private String replaceIsNullAndIsNotNullStatements(String query) {
+    private String replaceIsNullAndIsNotNullStatements(String query, boolean canonicalizeNullParams) {
         Set<Param> replacedParams = new HashSet<>();
 
         QueryTransformer transformer = queryTransformerFactory.transformer(query);
@@ -706,6 +799,14 @@ public class JmixEclipseLinkQuery<E> implements JmixQuery<E> {
                 .filter(Map.Entry::getValue)
                 .forEach(entry -> replacedParams.add(entry.getKey()));
 
+        if (canonicalizeNullParams) {
+            // "e.name = :name" with null value becomes "e.name is null", so the query can be prepared
+            params.stream()
+                    .filter(param -> param.isNamedParam() && param.value == null)
+                    .filter(param -> transformer.replaceNullComparisons(param.name.toString()))
+                    .forEach(replacedParams::add);
+        }
+
         if (replacedParams.isEmpty()) {
             return query;
         }
@@ -766,29 +867,28 @@ public class JmixEclipseLinkQuery<E> implements JmixQuery<E> {
             QueryParser parser = beanFactory.getBean(QueryTransformerFactory.class).parser(transformedQueryString);
             String entityName = parser.getEntityName();
             useQueryCache = parser.isEntitySelect(entityName);
-            QueryKey queryKey = null;
-            if (useQueryCache) {
-                queryKey = QueryKey.create(transformedQueryString, PersistenceHints.isSoftDeletion(entityManager), singleResult, jpaQuery);
-                result = singleResult ? queryCacheMgr.getSingleResultFromCache(queryKey, fetchPlans) :
-                        queryCacheMgr.getResultListFromCache(queryKey, fetchPlans);
-                if (result != null) {
-                    return result;
-                }
+            if (!useQueryCache) {
+                return getValuesFromCache(jpaQuery, singleResult, fetcher, parser, entityName);
+            }
+            QueryKey queryKey = QueryKey.create(transformedQueryString, PersistenceHints.isSoftDeletion(entityManager), singleResult, jpaQuery);
+            result = singleResult ? queryCacheMgr.getSingleResultFromCache(queryKey, fetchPlans) :
+                    queryCacheMgr.getResultListFromCache(queryKey, fetchPlans);
+            if (result != null) {
+                return result;
             }
             try {
                 result = singleResult ? jpaQuery.getSingleResult() : jpaQuery.getResultList();
             } catch (NoResultException | NonUniqueResultException ex) {
-                if (useQueryCache && singleResult) {
-                    queryCacheMgr.putResultToCache(queryKey, null, entityName, parser.getAllEntityNames(), ex);
+                if (singleResult) {
+                    queryCacheMgr.putResultToCache(queryKey, null, entityName, parser.getAllEntityNames(), ex,
+                            isInvalidatedByIds(parser, entityName));
                 }
                 throw ex;
             }
             fetcher.accept(result);
-            if (useQueryCache) {
-                queryCacheMgr.putResultToCache(queryKey,
-                        singleResult ? Collections.singletonList(result) : (List) result,
-                        entityName, parser.getAllEntityNames());
-            }
+            queryCacheMgr.putResultToCache(queryKey,
+                    singleResult ? Collections.singletonList(result) : (List) result,
+                    entityName, parser.getAllEntityNames(), isInvalidatedByIds(parser, entityName));
         } else {
             result = singleResult ? jpaQuery.getSingleResult() : jpaQuery.getResultList();
             fetcher.accept(result);
@@ -796,6 +896,103 @@ public class JmixEclipseLinkQuery<E> implements JmixQuery<E> {
         return result;
     }
 
+    /**
+     * Returns results of a scalar query (e.g. count or value query) from the query cache or executes the query
+     * and caches its results. Empty results and the absence of a single result are cached too, while
+     * {@link NonUniqueResultException} is not.
+     */
+    private Object getValuesFromCache(JpaQuery jpaQuery, boolean singleResult, Consumer<Object> fetcher,
+                                      QueryParser parser, @Nullable String entityName) {
+        Set<String> relatedTypes = entityName == null ? null : getValueQueryRelatedTypes(parser);
+        Object result;
+        if (relatedTypes == null) {
+            result = singleResult ? jpaQuery.getSingleResult() : jpaQuery.getResultList();
+            fetcher.accept(result);
+            return result;
+        }
+        QueryKey queryKey = QueryKey.create(transformedQueryString, PersistenceHints.isSoftDeletion(entityManager), singleResult, jpaQuery);
+        List<Object> values = queryCacheMgr.getValuesFromCache(queryKey);
+        if (values != null) {
+            return singleResult ? values.get(0) : values;
+        }
+        try {
+            result = singleResult ? jpaQuery.getSingleResult() : jpaQuery.getResultList();
+        } catch (NoResultException ex) {
+            if (singleResult) {
+                queryCacheMgr.putValuesToCache(queryKey, Collections.emptyList(), entityName, relatedTypes, ex);
+            }
+            throw ex;
+        }
+        fetcher.accept(result);
+        queryCacheMgr.putValuesToCache(queryKey,
+                singleResult ? Collections.singletonList(result) : (List<?>) result,
+                entityName, relatedTypes, null);
+        return result;
+    }
+
+    /**
+     * Returns names of entities whose changes can affect results of a scalar query: entities used in the query
+     * and entities referenced by its property paths, or null if some of the paths cannot be resolved.
+     */
+    @Nullable
+    private Set<String> getValueQueryRelatedTypes(QueryParser parser) {
+        Set<String> relatedTypes = new HashSet<>(parser.getAllEntityNames());
+        for (QueryParser.QueryPath path : parser.getQueryPaths()) {
+            MetaClass metaClass = path.getEntityName() == null ? null : metadata.findClass(path.getEntityName());
+            if (metaClass == null) {
+                return null;
+            }
+            relatedTypes.add(metaClass.getName());
+            if (!path.getFullPath().contains(".")) {
+                continue;
+            }
+            MetaPropertyPath propertyPath = metaClass.getPropertyPath(path.getPropertyPath());
+            if (propertyPath == null) {
+                return null;
+            }
+            for (MetaProperty property : propertyPath.getMetaProperties()) {
+                if (property.getRange().isClass()) {
+                    relatedTypes.add(property.getRange().asClass().getName());
+                }
+            }
+        }
+        return relatedTypes;
+    }
+
+    /**
+     * Returns true if updates of existing instances cannot change the set of instances returned by the query:
+     * the query selects a single entity without joins and its conditions use only the primary key. Ordering
+     * is not taken into account for unlimited results, because updates of instances not in the result cannot
+     * change their order. If {@code maxResults} or {@code firstResult} is set, ordering defines which instances
+     * get into the page, so it must use only the primary key too.
+     */
+    private boolean isInvalidatedByIds(QueryParser parser, String entityName) {
+        if (!queryCacheMgr.isInvalidationByIds()
+                || parser.getAllEntityNames().size() != 1
+                || parser.isQueryWithJoins()) {
+            return false;
+        }
+        MetaClass metaClass = metadata.getClass(entityName);
+        // restoring of a soft-deleted instance is an update that adds it to results
+        if (metadataTools.isSoftDeletable(metaClass.getJavaClass())) {
+            return false;
+        }
+        String pkName = metadataTools.getPrimaryKeyName(metaClass);
+        String queryString = transformedQueryString;
+        boolean paged = maxResults != null || (firstResult != null && firstResult > 0);
+        if (!paged) {
+            QueryTransformer transformer = queryTransformerFactory.transformer(transformedQueryString);
+            transformer.removeOrderBy();
+            queryString = transformer.getResult();
+        }
+        for (QueryParser.QueryPath path : queryTransformerFactory.parser(queryString).getQueryPaths()) {
+            if (!path.isSelectedPath() && !path.getPropertyPath().equals(pkName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void checkState() {
         if (query != null)
             throw new IllegalStateException("Query delegate has already been created");
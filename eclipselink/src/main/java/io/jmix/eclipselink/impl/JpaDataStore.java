@@ -16,26 +16,46 @@
 
 package io.jmix.eclipselink.impl;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import io.jmix.core.*;
+import io.jmix.core.accesscontext.CrudEntityContext;
+import io.jmix.core.accesscontext.InMemoryCrudEntityContext;
+import io.jmix.core.annotation.DeletedBy;
+import io.jmix.core.annotation.DeletedDate;
+import io.jmix.core.constraint.InMemoryConstraint;
 import io.jmix.core.datastore.AbstractDataStore;
+import io.jmix.core.entity.EntitySystemAccess;
+import io.jmix.core.entity.EntityValues;
+import io.jmix.core.entity.annotation.OnDelete;
+import io.jmix.core.entity.annotation.OnDeleteInverse;
 import io.jmix.core.event.EntityChangedEvent;
 import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.metamodel.model.MetaProperty;
+import io.jmix.core.metamodel.model.Range;
+import io.jmix.data.AuditInfoProvider;
 import io.jmix.data.DataProperties;
 import io.jmix.data.PersistenceHints;
 import io.jmix.data.QueryTransformerFactory;
 import io.jmix.data.StoreAwareLocator;
+import io.jmix.data.accesscontext.LoadValuesAccessContext;
 import io.jmix.data.accesscontext.ReadEntityQueryContext;
 import io.jmix.data.exception.UniqueConstraintViolationException;
 import io.jmix.data.impl.EntityChangedEventInfo;
 import io.jmix.data.impl.EntityEventManager;
+import io.jmix.data.impl.EntityFetcher;
+import io.jmix.data.impl.EntityListenerManager;
 import io.jmix.data.impl.JpqlQueryBuilder;
 import io.jmix.data.impl.QueryResultsManager;
+import io.jmix.data.impl.converters.AuditConversionService;
 import io.jmix.data.persistence.DbmsSpecifics;
+import io.jmix.eclipselink.EclipselinkProperties;
+import io.jmix.eclipselink.impl.lazyloading.JpaLazyLoadingListener;
 import io.jmix.eclipselink.impl.lazyloading.LazyLoadingContext;
+import io.jmix.eclipselink.impl.lazyloading.ValueHoldersBatch;
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.persistence.exceptions.QueryException;
+import org.eclipse.persistence.queries.ScrollableCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
@@ -48,17 +68,24 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.annotation.Nullable;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceException;
 import javax.persistence.Query;
+import javax.persistence.Version;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.jmix.core.entity.EntityValues.getValue;
 
@@ -117,10 +144,36 @@ public class JpaDataStore extends AbstractDataStore implements DataSortingOption
     @Autowired
     protected FetchPlanRepository fetchPlanRepository;
 
+    @Autowired
+    protected EntityListenerManager entityListenerManager;
+
+    @Autowired
+    protected TimeSource timeSource;
+
+    @Autowired
+    protected AuditInfoProvider auditInfoProvider;
+
+    @Autowired
+    protected AuditConversionService auditConverter;
+
+    @Autowired
+    protected EclipselinkProperties eclipselinkProperties;
+
+    @Autowired
+    protected EntityFetcher entityFetcher;
+
+    @Autowired
+    protected ParallelLoadingExecutor parallelLoadingExecutor;
+
+    @Autowired
+    protected JpaLazyLoadingListener lazyLoadingListener;
+
     protected String storeName;
 
     protected static final AtomicLong txCount = new AtomicLong();
 
+    protected static final int COMPOSITE_IDS_BATCH_SIZE = 100;
+
     @Override
     public String getName() {
         return storeName;
@@ -167,30 +220,70 @@ public class JpaDataStore extends AbstractDataStore implements DataSortingOption
         }
     }
 
+    @SuppressWarnings("unchecked")
     protected List<Object> loadAllByIds(LoadContext<?> context, EntityManager em) {
-        LoadContext<?> contextCopy = context.copy();
-        contextCopy.setIds(Collections.emptyList());
+        MetaClass metaClass = extendedEntities.getEffectiveMetaClass(context.getEntityMetaClass());
+        MetaProperty primaryKeyProperty = Objects.requireNonNull(metadataTools.getPrimaryKeyProperty(metaClass));
+        int keySize = (int) primaryKeyProperty.getRange().asClass().getProperties().stream()
+                .filter(metadataTools::isJpa)
+                .count();
+
+        // each id of a batch is a condition with a parameter for each key property
+        int batchSize = COMPOSITE_IDS_BATCH_SIZE;
+        Integer maxIdsBatchSize = dbmsSpecifics.getDbmsFeatures(storeName).getMaxIdsBatchSize();
+        if (maxIdsBatchSize != null) {
+            batchSize = Math.max(1, Math.min(batchSize, maxIdsBatchSize / keySize));
+        }
 
-        List<Object> entities = new ArrayList<>(context.getIds().size());
+        List<Object> entities = loadByIdPartitions(context, em,
+                Lists.partition((List<Object>) context.getIds(), batchSize));
 
-        for (Object id : context.getIds()) {
-            contextCopy.setId(id);
-            Query query = createQuery(em, contextCopy, false);
-            List<Object> list = executeQuery(query, true);
-            entities.addAll(list);
+        Map<Object, Object> entitiesById = new HashMap<>(entities.size());
+        for (Object entity : entities) {
+            entitiesById.put(EntityValues.getId(entity), entity);
         }
 
-        return entities;
+        List<Object> result = new ArrayList<>(entities.size());
+        for (Object id : context.getIds()) {
+            Object entity = entitiesById.get(id);
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
     }
 
     @SuppressWarnings("unchecked")
     protected List<Object> loadAllByIdBatches(LoadContext<?> context, EntityManager em) {
         Integer batchSize = dbmsSpecifics.getDbmsFeatures(storeName).getMaxIdsBatchSize();
 
-        List<Object> resultList = new ArrayList<>(context.getIds().size());
-
         List<List<Object>> partitions = Lists.partition((List<Object>) context.getIds(),
                 batchSize == null ? Integer.MAX_VALUE : batchSize);
+
+        return loadByIdPartitions(context, em, partitions);
+    }
+
+    /**
+     * Loads entities by the partitions of ids of the given context. If there is more than one partition and parallel
+     * loading is enabled, partitions are loaded concurrently in separate read-only transactions, unless the context
+     * joins the current transaction and must see its changes. Results are returned in the order of partitions.
+     */
+    @SuppressWarnings("unchecked")
+    protected List<Object> loadByIdPartitions(LoadContext<?> context, EntityManager em, List<List<Object>> partitions) {
+        if (partitions.size() > 1 && parallelLoadingExecutor.isEnabled() && !context.isJoinTransaction()) {
+            List<Supplier<List<Object>>> tasks = new ArrayList<>(partitions.size());
+            for (List<Object> partition : partitions) {
+                tasks.add(() -> loadIdPartitionInNewTransaction(context, partition));
+            }
+
+            List<Object> resultList = new ArrayList<>(context.getIds().size());
+            for (List<Object> list : parallelLoadingExecutor.invokeAll(tasks)) {
+                resultList.addAll(list);
+            }
+            return resultList;
+        }
+
+        List<Object> resultList = new ArrayList<>(context.getIds().size());
         for (List<Object> partition : partitions) {
             LoadContext<Object> contextCopy = (LoadContext<Object>) context.copy();
             contextCopy.setIds(partition);
@@ -204,6 +297,156 @@ public class JpaDataStore extends AbstractDataStore implements DataSortingOption
         return resultList;
     }
 
+    @SuppressWarnings("unchecked")
+    protected List<Object> loadIdPartitionInNewTransaction(LoadContext<?> context, List<Object> partition) {
+        LoadContext<Object> contextCopy = (LoadContext<Object>) context.copy();
+        contextCopy.setIds(partition);
+
+        Object transaction = beginLoadTransaction(false);
+        try {
+            EntityManager em = storeAwareLocator.getEntityManager(storeName);
+            em.setProperty(PersistenceHints.SOFT_DELETION, context.getHints().get(PersistenceHints.SOFT_DELETION));
+
+            Query query = createQuery(em, contextCopy, false);
+            List<Object> list = executeQuery(query, false);
+
+            commitTransaction(transaction);
+            return list;
+        } finally {
+            rollbackTransaction(transaction);
+        }
+    }
+
+    /**
+     * Loads a page of entities defined by {@code firstResult} and {@code maxResults} of the context query together
+     * with the total number of entities.
+     * <p>
+     * The count query is executed only if the total cannot be derived from the page itself: the page is full,
+     * or it is empty and not the first one, or in-memory access constraints can filter out loaded entities.
+     */
+    @SuppressWarnings("unchecked")
+    public <E> PagedResult<E> loadPage(LoadContext<E> context) {
+        List<E> list = (List<E>) loadList(context);
+
+        LoadContext.Query query = context.getQuery();
+        int firstResult = query == null ? 0 : query.getFirstResult();
+        int maxResults = query == null ? 0 : query.getMaxResults();
+
+        boolean inMemoryConstraints = context.getAccessConstraints().stream()
+                .anyMatch(constraint -> constraint instanceof InMemoryConstraint);
+
+        long totalCount;
+        if (!inMemoryConstraints && (maxResults == 0 || list.size() < maxResults)
+                && (firstResult == 0 || !list.isEmpty())) {
+            totalCount = firstResult + list.size();
+        } else {
+            totalCount = getCount(context);
+        }
+        return new PagedResult<>(list, totalCount);
+    }
+
+    /**
+     * Loads entities by the given context as a stream using the fetch size defined by
+     * {@link EclipselinkProperties#getCursorFetchSize()}.
+     *
+     * @see #loadStream(LoadContext, int)
+     */
+    public <E> Stream<E> loadStream(LoadContext<E> context) {
+        return loadStream(context, eclipselinkProperties.getCursorFetchSize());
+    }
+
+    /**
+     * Loads entities by the given context as a lazily consumed stream. Rows are read from a database cursor by
+     * {@code fetchSize} and each chunk is detached before the next one is read, so the whole result is never kept
+     * in memory. Not loaded references of each chunk are wrapped for lazy loading as in {@link #loadList(LoadContext)}.
+     * <p>
+     * The stream holds a database connection and a load transaction until it is exhausted or closed, so it must be
+     * consumed in the calling thread and closed after use:
+     * <pre>
+     * try (Stream&lt;Order&gt; orders = jpaDataStore.loadStream(context)) {
+     *     orders.forEach(this::export);
+     * }
+     * </pre>
+     * If the stream joins an active transaction and is left open, its cursor is closed when that transaction
+     * completes. A stream running in its own transaction cannot be released by anything but {@code close()}.
+     * <p>
+     * Loading by ids is not supported. Access constraints are applied to the query, but entities cannot be filtered
+     * by in-memory constraints chunk by chunk, so loading entities of the fetch plan restricted by in-memory read
+     * constraints is rejected.
+     *
+     * @param fetchSize number of rows read from the database and detached at once
+     * @throws UnsupportedOperationException if in-memory read constraints are applied to the loaded entities
+     */
+    @SuppressWarnings("unchecked")
+    public <E> Stream<E> loadStream(LoadContext<E> context, int fetchSize) {
+        Preconditions.checkArgument(fetchSize > 0, "fetchSize must be positive");
+        Preconditions.checkArgument(context.getId() == null && context.getIds().isEmpty(),
+                "Loading by ids is not supported for streams");
+
+        MetaClass metaClass = extendedEntities.getEffectiveMetaClass(context.getEntityMetaClass());
+
+        CrudEntityContext entityContext = new CrudEntityContext(metaClass);
+        accessManager.applyConstraints(entityContext, context.getAccessConstraints());
+        if (!entityContext.isReadPermitted()) {
+            log.debug("Reading entity {} is not permitted by access constraints", metaClass);
+            return Stream.empty();
+        }
+
+        FetchPlan fetchPlan = createFetchPlan(context);
+        if (hasInMemoryReadConstraints(context, fetchPlan)) {
+            throw new UnsupportedOperationException("Cannot load " + metaClass.getName()
+                    + " as a stream because in-memory read constraints are applied to the fetch plan entities");
+        }
+
+        Object transaction = beginLoadTransaction(context.isJoinTransaction());
+        EntityCursorIterator iterator;
+        try {
+            EntityManager em = storeAwareLocator.getEntityManager(storeName);
+            boolean softDeletionBefore = PersistenceHints.isSoftDeletion(em);
+            em.setProperty(PersistenceHints.SOFT_DELETION, context.getHints().get(PersistenceHints.SOFT_DELETION));
+            try {
+                JmixEclipseLinkQuery<?> query = (JmixEclipseLinkQuery<?>) createQuery(em, context, false);
+                ScrollableCursor cursor = query.getResultCursor(fetchSize);
+                iterator = new EntityCursorIterator(context, em, softDeletionBefore, cursor, fetchPlan, fetchSize,
+                        transaction);
+            } catch (RuntimeException e) {
+                em.setProperty(PersistenceHints.SOFT_DELETION, softDeletionBefore);
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            rollbackTransaction(transaction);
+            throw e;
+        }
+
+        iterator.registerSynchronization();
+        return (Stream<E>) StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    protected boolean hasInMemoryReadConstraints(LoadContext<?> context, FetchPlan fetchPlan) {
+        Set<MetaClass> entityClasses = new HashSet<>();
+        collectEntityClasses(fetchPlan, entityClasses, new HashSet<>());
+        return entityClasses.stream()
+                .anyMatch(entityClass -> {
+                    InMemoryCrudEntityContext crudContext = new InMemoryCrudEntityContext(entityClass);
+                    accessManager.applyConstraints(crudContext, context.getAccessConstraints());
+                    return crudContext.readPredicate() != null;
+                });
+    }
+
+    protected void collectEntityClasses(FetchPlan fetchPlan, Set<MetaClass> entityClasses, Set<FetchPlan> visited) {
+        if (!visited.add(fetchPlan)) {
+            return;
+        }
+        entityClasses.add(metadata.getClass(fetchPlan.getEntityClass()));
+        for (FetchPlanProperty property : fetchPlan.getProperties()) {
+            if (property.getFetchPlan() != null) {
+                collectEntityClasses(property.getFetchPlan(), entityClasses, visited);
+            }
+        }
+    }
+
     @Override
     protected long countAll(LoadContext<?> context) {
         queryResultsManager.savePreviousQueryResults(context);
@@ -248,7 +491,15 @@ public class JpaDataStore extends AbstractDataStore implements DataSortingOption
         boolean softDeletionBefore = PersistenceHints.isSoftDeletion(em);
         try {
             em.setProperty(PersistenceHints.SOFT_DELETION, context.getHints().get(PersistenceHints.SOFT_DELETION));
-            for (Object entity : context.getEntitiesToRemove()) {
+
+            Collection<Object> entitiesToRemove = context.getEntitiesToRemove();
+            if (Boolean.TRUE.equals(context.getHints().get(PersistenceHints.BULK_DELETE))) {
+                entitiesToRemove = bulkDelete(em, entitiesToRemove);
+                result.addAll(context.getEntitiesToRemove());
+                result.removeAll(entitiesToRemove);
+            }
+
+            for (Object entity : entitiesToRemove) {
                 Object merged = em.merge(entity);
                 em.remove(merged);
                 result.add(merged);
@@ -259,6 +510,167 @@ public class JpaDataStore extends AbstractDataStore implements DataSortingOption
         return result;
     }
 
+    /**
+     * Deletes entities that support bulk deletion by {@code delete} or soft deletion {@code update} statements,
+     * one per entity type and batch of ids. The passed instances of bulk deleted entities are marked as removed
+     * or, if soft deleted, get the values of soft deletion attributes and the incremented version.
+     *
+     * @return entities that must be deleted one by one
+     */
+    protected Collection<Object> bulkDelete(EntityManager em, Collection<Object> entities) {
+        Map<MetaClass, List<Object>> entitiesByMetaClass = new LinkedHashMap<>();
+        List<Object> remaining = new ArrayList<>();
+        for (Object entity : entities) {
+            MetaClass metaClass = metadata.getClass(entity);
+            Object id = EntityValues.getId(entity);
+            if (id != null && !entityStates.isNew(entity) && !entityStates.isManaged(entity) && isBulkDeleteSupported(metaClass)) {
+                entitiesByMetaClass.computeIfAbsent(metaClass, key -> new ArrayList<>()).add(entity);
+            } else {
+                remaining.add(entity);
+            }
+        }
+        if (entitiesByMetaClass.isEmpty()) {
+            return entities;
+        }
+
+        Integer batchSize = dbmsSpecifics.getDbmsFeatures(storeName).getMaxIdsBatchSize();
+        for (Map.Entry<MetaClass, List<Object>> entry : entitiesByMetaClass.entrySet()) {
+            MetaClass metaClass = entry.getKey();
+            String primaryKeyName = metadataTools.getPrimaryKeyName(metaClass);
+            boolean softDeletion = metadataTools.isSoftDeletable(metaClass.getJavaClass()) && PersistenceHints.isSoftDeletion(em);
+            Map<String, Object> softDeletionValues = softDeletion ? getSoftDeletionValues(metaClass) : Collections.emptyMap();
+            MetaProperty versionProperty = softDeletion ? getVersionProperty(metaClass) : null;
+            List<Object> ids = entry.getValue().stream()
+                    .map(EntityValues::getId)
+                    .collect(Collectors.toList());
+
+            for (List<Object> partition : Lists.partition(ids, batchSize == null ? Integer.MAX_VALUE : batchSize)) {
+                Query query;
+                if (softDeletion) {
+                    query = createSoftDeleteQuery(em, metaClass, primaryKeyName, softDeletionValues, versionProperty);
+                } else {
+                    query = em.createQuery(String.format("delete from %s e where e.%s in :ids",
+                            metaClass.getName(), primaryKeyName));
+                }
+                query.setParameter("ids", partition);
+                // cache eviction and query cache invalidation are performed by JmixEclipseLinkQuery.executeUpdate()
+                int count = query.executeUpdate();
+                log.debug("Bulk deleted {} instances of {}", count, metaClass.getName());
+            }
+
+            for (Object entity : entry.getValue()) {
+                if (softDeletion) {
+                    softDeletionValues.forEach((name, value) -> EntityValues.setValue(entity, name, value));
+                    if (versionProperty != null) {
+                        EntityValues.setValue(entity, versionProperty.getName(),
+                                incrementVersion(EntityValues.getValue(entity, versionProperty.getName())));
+                    }
+                } else {
+                    EntitySystemAccess.getEntityEntry(entity).setRemoved(true);
+                }
+            }
+        }
+        return remaining;
+    }
+
+    protected Map<String, Object> getSoftDeletionValues(MetaClass metaClass) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (MetaProperty property : metaClass.getProperties()) {
+            if (property.getAnnotatedElement().isAnnotationPresent(DeletedDate.class)) {
+                values.put(property.getName(), auditConverter.convert(timeSource.currentTimestamp(), property.getJavaType()));
+            } else if (property.getAnnotatedElement().isAnnotationPresent(DeletedBy.class)) {
+                values.put(property.getName(), auditConverter.convert(auditInfoProvider.getCurrentUser(), property.getJavaType()));
+            }
+        }
+        return values;
+    }
+
+    @Nullable
+    protected MetaProperty getVersionProperty(MetaClass metaClass) {
+        for (MetaProperty property : metaClass.getProperties()) {
+            if (property.getAnnotatedElement().isAnnotationPresent(Version.class)) {
+                return property;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    protected Object incrementVersion(@Nullable Object version) {
+        if (version instanceof Integer) {
+            return (Integer) version + 1;
+        } else if (version instanceof Long) {
+            return (Long) version + 1;
+        } else if (version instanceof Short) {
+            return (short) ((Short) version + 1);
+        }
+        return version;
+    }
+
+    /**
+     * Creates the soft deletion statement. The version is incremented, so stale copies of the deleted instances
+     * cannot be merged later and restore them silently.
+     */
+    protected Query createSoftDeleteQuery(EntityManager em, MetaClass metaClass, String primaryKeyName,
+                                          Map<String, Object> values, @Nullable MetaProperty versionProperty) {
+        StringBuilder sb = new StringBuilder("update ").append(metaClass.getName()).append(" e set ");
+        int i = 0;
+        for (String propertyName : values.keySet()) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("e.").append(propertyName).append(" = :value").append(i++);
+        }
+        if (versionProperty != null) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("e.").append(versionProperty.getName()).append(" = e.").append(versionProperty.getName()).append(" + 1");
+        }
+        sb.append(" where e.").append(primaryKeyName).append(" in :ids");
+
+        Query query = em.createQuery(sb.toString());
+        i = 0;
+        for (Object value : values.values()) {
+            query.setParameter("value" + i++, value);
+        }
+        return query;
+    }
+
+    /**
+     * Entities can be deleted by a bulk statement if deleting of an instance involves no logic besides removing
+     * its row: no delete policies, no entity listeners, no compositions and no collections that should be cleaned up.
+     */
+    protected boolean isBulkDeleteSupported(MetaClass metaClass) {
+        if (metadataTools.hasCompositePrimaryKey(metaClass)
+                || entityListenerManager.hasListeners(metaClass.getJavaClass())
+                || hasAnnotation(metaClass, OnDelete.class.getName())
+                || hasAnnotation(metaClass, OnDeleteInverse.class.getName())) {
+            return false;
+        }
+        for (MetaProperty property : metaClass.getProperties()) {
+            if (property.getRange().isClass()
+                    && (property.getType() == MetaProperty.Type.COMPOSITION
+                    || property.getRange().getCardinality().isMany()
+                    || property.getRange().getCardinality() == Range.Cardinality.ONE_TO_ONE && !metadataTools.isOwningSide(property))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected boolean hasAnnotation(MetaClass metaClass, String annotationName) {
+        if (metaClass.getAnnotations().get(annotationName) != null) {
+            return true;
+        }
+        for (MetaClass ancestor : metaClass.getAncestors()) {
+            if (ancestor.getAnnotations().get(annotationName) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     protected List<Object> loadAllValues(ValueLoadContext context) {
         EntityManager em = storeAwareLocator.getEntityManager(storeName);
@@ -279,6 +691,88 @@ public class JpaDataStore extends AbstractDataStore implements DataSortingOption
         return result.longValue();
     }
 
+    /**
+     * Loads values by the given context into columns instead of a list of {@code KeyValueEntity} instances.
+     * The query is built and restricted by access constraints as in {@link #loadValues(ValueLoadContext)},
+     * values of the properties denied by constraints are null.
+     * <p>
+     * {@code DataStore} value load events are not sent, because their listeners work with {@code KeyValueEntity}
+     * results: denied properties are evaluated by the access constraints of the context directly.
+     */
+    public ValueColumns loadValueColumns(ValueLoadContext context) {
+        List<Integer> deniedIndexes = getDeniedValueIndexes(context);
+
+        Object transaction = beginLoadTransaction(context.isJoinTransaction());
+        try {
+            EntityManager em = storeAwareLocator.getEntityManager(storeName);
+            boolean softDeletionBefore = PersistenceHints.isSoftDeletion(em);
+            List<Object> rows;
+            try {
+                rows = loadAllValues(context);
+            } finally {
+                em.setProperty(PersistenceHints.SOFT_DELETION, softDeletionBefore);
+            }
+            commitTransaction(transaction);
+            return ValueColumns.fromRows(context.getProperties(), rows, deniedIndexes);
+        } finally {
+            rollbackTransaction(transaction);
+        }
+    }
+
+    /**
+     * Loads values by the given context as a lazily consumed stream of columns, each containing up to
+     * {@code fetchSize} rows read from a database cursor. Access constraints and events are handled as in
+     * {@link #loadValueColumns(ValueLoadContext)}.
+     * <p>
+     * Like {@link #loadStream(LoadContext, int)}, the stream holds a database connection and a load transaction
+     * until it is exhausted or closed, so it must be consumed in the calling thread and closed after use,
+     * for example in try-with-resources. If the stream joins an active transaction and is left open, its cursor
+     * is closed when that transaction completes.
+     */
+    public Stream<ValueColumns> loadValueColumnsStream(ValueLoadContext context, int fetchSize) {
+        Preconditions.checkArgument(fetchSize > 0, "fetchSize must be positive");
+
+        List<Integer> deniedIndexes = getDeniedValueIndexes(context);
+        List<String> properties = context.getProperties();
+
+        Object transaction = beginLoadTransaction(context.isJoinTransaction());
+        CursorChunkIterator<ValueColumns> iterator;
+        try {
+            EntityManager em = storeAwareLocator.getEntityManager(storeName);
+            boolean softDeletionBefore = PersistenceHints.isSoftDeletion(em);
+            em.setProperty(PersistenceHints.SOFT_DELETION, context.getHints().get(PersistenceHints.SOFT_DELETION));
+            try {
+                JmixEclipseLinkQuery<?> query = (JmixEclipseLinkQuery<?>) createLoadQuery(em, context, false);
+                ScrollableCursor cursor = query.getResultCursor(fetchSize);
+                iterator = new CursorChunkIterator<ValueColumns>(em, softDeletionBefore, cursor, fetchSize,
+                        transaction) {
+                    @Override
+                    protected List<ValueColumns> processChunk(List<Object> rows) {
+                        return Collections.singletonList(ValueColumns.fromRows(properties, rows, deniedIndexes));
+                    }
+                };
+            } catch (RuntimeException e) {
+                em.setProperty(PersistenceHints.SOFT_DELETION, softDeletionBefore);
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            rollbackTransaction(transaction);
+            throw e;
+        }
+
+        iterator.registerSynchronization();
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    protected List<Integer> getDeniedValueIndexes(ValueLoadContext context) {
+        LoadValuesAccessContext accessContext = new LoadValuesAccessContext(context.getQuery().getQueryString(),
+                queryTransformerFactory, metadata);
+        accessManager.applyConstraints(accessContext, context.getAccessConstraints());
+        return accessContext.getDeniedSelectedIndexes();
+    }
+
     @Override
     protected Object beginLoadTransaction(boolean joinTransaction) {
         DefaultTransactionDefinition def = new DefaultTransactionDefinition();
@@ -401,7 +895,8 @@ public class JpaDataStore extends AbstractDataStore implements DataSortingOption
                     .setCondition(contextQuery.getCondition())
                     .setQueryParameters(contextQuery.getParameters());
             if (!countQuery) {
-                queryBuilder.setSort(contextQuery.getSort());
+                queryBuilder.setSort(contextQuery.getSort())
+                        .setKeysetValues((List<?>) context.getHints().get(PersistenceHints.KEYSET_AFTER));
             }
         }
 
@@ -472,6 +967,10 @@ public class JpaDataStore extends AbstractDataStore implements DataSortingOption
 
         query = (JmixEclipseLinkQuery<?>) queryContext.getResultQuery();
 
+        if (Boolean.TRUE.equals(context.getHints().get(PersistenceHints.CACHEABLE))) {
+            query.setHint(PersistenceHints.CACHEABLE, true);
+        }
+
         return query;
     }
 
@@ -602,4 +1101,146 @@ public class JpaDataStore extends AbstractDataStore implements DataSortingOption
         }
         return constraintName.toUpperCase();
     }
+
+    /**
+     * Reads rows from a cursor by chunks and completes the load transaction when the cursor is exhausted or closed.
+     * Subclasses convert each chunk of rows into the iterated elements.
+     */
+    protected abstract class CursorChunkIterator<T> implements Iterator<T> {
+
+        protected final EntityManager em;
+        protected final boolean softDeletionBefore;
+        protected final ScrollableCursor cursor;
+        protected final int chunkSize;
+        protected final Object transaction;
+
+        protected Iterator<T> chunk = Collections.emptyIterator();
+        protected boolean failed;
+        protected boolean closed;
+
+        public CursorChunkIterator(EntityManager em, boolean softDeletionBefore, ScrollableCursor cursor,
+                                   int chunkSize, Object transaction) {
+            this.em = em;
+            this.softDeletionBefore = softDeletionBefore;
+            this.cursor = cursor;
+            this.chunkSize = chunkSize;
+            this.transaction = transaction;
+        }
+
+        /**
+         * Closes the cursor when the transaction the iterator runs in completes without the iterator being closed,
+         * which happens if a stream joined an outer transaction and was abandoned.
+         */
+        public void registerSynchronization() {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void beforeCompletion() {
+                    if (!closed) {
+                        log.warn("Stream loaded from {} store was not closed before its transaction completed",
+                                storeName);
+                        closed = true;
+                        chunk = Collections.emptyIterator();
+                        release();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (chunk.hasNext()) {
+                return true;
+            }
+            if (closed) {
+                return false;
+            }
+            try {
+                @SuppressWarnings("unchecked")
+                List<Object> rows = cursor.next(chunkSize);
+                if (rows.isEmpty()) {
+                    close();
+                    return false;
+                }
+                chunk = processChunk(rows).iterator();
+            } catch (RuntimeException e) {
+                failed = true;
+                close();
+                throw e;
+            }
+            return chunk.hasNext() || hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return chunk.next();
+        }
+
+        protected abstract List<T> processChunk(List<Object> rows);
+
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            chunk = Collections.emptyIterator();
+            try {
+                release();
+            } finally {
+                if (failed) {
+                    rollbackTransaction(transaction);
+                } else {
+                    commitTransaction(transaction);
+                }
+            }
+        }
+
+        /**
+         * Closes the cursor and restores the soft deletion mode of the entity manager, which can be shared
+         * with the joined transaction.
+         */
+        protected void release() {
+            try {
+                cursor.close();
+            } finally {
+                em.setProperty(PersistenceHints.SOFT_DELETION, softDeletionBefore);
+            }
+        }
+    }
+
+    /**
+     * Fetches and detaches each chunk of entities read from a cursor and wraps their not loaded references
+     * for lazy loading.
+     */
+    protected class EntityCursorIterator extends CursorChunkIterator<Object> {
+
+        protected final LoadContext<?> context;
+        protected final FetchPlan fetchPlan;
+
+        public EntityCursorIterator(LoadContext<?> context, EntityManager em, boolean softDeletionBefore,
+                                    ScrollableCursor cursor, FetchPlan fetchPlan, int chunkSize, Object transaction) {
+            super(em, softDeletionBefore, cursor, chunkSize, transaction);
+            this.context = context;
+            this.fetchPlan = fetchPlan;
+        }
+
+        @Override
+        protected List<Object> processChunk(List<Object> entities) {
+            for (Object entity : entities) {
+                entityFetcher.fetch(entity, fetchPlan);
+            }
+            Map<String, ValueHoldersBatch> batches = new HashMap<>();
+            for (Object entity : entities) {
+                detachEntity(em, entity, fetchPlan, false);
+                entityEventManager.publishEntityLoadingEvent(entity);
+                lazyLoadingListener.processValueHolders(entity, context, fetchPlan, batches);
+            }
+            return entities;
+        }
+    }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.eclipselink.impl;
+
+import java.util.List;
+
+/**
+ * Page of entities together with the total number of entities matching the query.
+ *
+ * @see JpaDataStore#loadPage(io.jmix.core.LoadContext)
+ */
+public class PagedResult<E> {
+
+    protected final List<E> list;
+    protected final long totalCount;
+
+    public PagedResult(List<E> list, long totalCount) {
+        this.list = list;
+        this.totalCount = totalCount;
+    }
+
+    public List<E> getList() {
+        return list;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.eclipselink.impl;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.jmix.eclipselink.EclipselinkProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Bounded thread pool executing independent load queries in parallel. Each task is executed with the security
+ * context of the calling thread and should use its own transaction.
+ * <p>
+ * The number of threads is defined by {@code jmix.eclipselink.parallelLoadingThreads}, 0 disables the pool.
+ */
+@Component("eclipselink_ParallelLoadingExecutor")
+public class ParallelLoadingExecutor {
+
+    @Autowired
+    protected EclipselinkProperties properties;
+
+    protected ExecutorService executor;
+
+    @PostConstruct
+    protected void init() {
+        if (properties.getParallelLoadingThreads() > 0) {
+            executor = Executors.newFixedThreadPool(properties.getParallelLoadingThreads(), new ThreadFactoryBuilder()
+                    .setNameFormat("jmix-parallel-loading-%d")
+                    .setDaemon(true)
+                    .build());
+        }
+    }
+
+    public boolean isEnabled() {
+        return executor != null;
+    }
+
+    /**
+     * Executes the given tasks in parallel and returns their results in the order of tasks. If a task fails,
+     * its exception is rethrown after all tasks are completed.
+     */
+    public <T> List<T> invokeAll(List<Supplier<T>> tasks) {
+        if (executor == null) {
+            throw new IllegalStateException("Parallel loading is disabled");
+        }
+
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(tasks.size());
+        for (Supplier<T> task : tasks) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                SecurityContextHolder.setContext(securityContext);
+                try {
+                    return task.get();
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }, executor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
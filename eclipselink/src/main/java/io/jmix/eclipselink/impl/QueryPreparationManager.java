@@ -0,0 +1,184 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.eclipselink.impl;
+
+import com.google.common.base.Strings;
+import io.jmix.core.Stores;
+import io.jmix.data.impl.PersistenceUnitProperties;
+import io.jmix.eclipselink.EclipselinkProperties;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Controls how EclipseLink prepares queries of each data store: the size of the JPQL parse cache, the size of
+ * the JDBC statement cache and whether null parameters are canonicalized.
+ * <p>
+ * Initial values are taken from {@link EclipselinkProperties} and can be overridden for an additional data store
+ * by properties with the {@code _<storeName>} suffix, e.g. {@code jmix.eclipselink.jpqlParseCacheSize_db1}.
+ * The values can be changed at runtime by the setters of this bean.
+ * <p>
+ * If null parameters are canonicalized, comparisons of paths with null parameters, e.g. {@code e.name = :name},
+ * are replaced with {@code is null} statements. The resulting query is a separate variant in the JPQL parse cache
+ * and its SQL is prepared once. Otherwise, the query with a null parameter is not prepared, so its SQL is
+ * generated on each execution.
+ */
+@Component("eclipselink_QueryPreparationManager")
+public class QueryPreparationManager {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryPreparationManager.class);
+
+    protected static final String JPQL_PARSE_CACHE_SIZE_PROP = "jmix.eclipselink.jpqlParseCacheSize";
+    protected static final String STATEMENT_CACHE_SIZE_PROP = "jmix.eclipselink.statementCacheSize";
+    protected static final String CANONICALIZE_NULL_PARAMETERS_PROP = "jmix.eclipselink.canonicalizeNullParameters";
+
+    @Autowired
+    protected EclipselinkProperties properties;
+
+    @Autowired
+    protected Environment environment;
+
+    @Autowired
+    protected TransformedQueryCache transformedQueryCache;
+
+    protected Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    protected Map<String, Boolean> canonicalizeNullParameters = new ConcurrentHashMap<>();
+
+    /**
+     * Applies the configured settings to the session of a data store. Invoked before the session logs in.
+     */
+    public void setupSession(Session session) {
+        String storeName = getStoreName(session);
+        sessions.put(storeName, session);
+
+        int parseCacheSize = getIntProperty(JPQL_PARSE_CACHE_SIZE_PROP, storeName, properties.getJpqlParseCacheSize());
+        session.getProject().setJPQLParseCacheMaxSize(parseCacheSize);
+
+        int statementCacheSize = getIntProperty(STATEMENT_CACHE_SIZE_PROP, storeName, properties.getStatementCacheSize());
+        applyStatementCacheSize(session, statementCacheSize);
+
+        String canonicalize = getStoreProperty(CANONICALIZE_NULL_PARAMETERS_PROP, storeName);
+        canonicalizeNullParameters.put(storeName, canonicalize == null
+                ? properties.isCanonicalizeNullParameters()
+                : BooleanUtils.toBoolean(canonicalize));
+
+        log.debug("Query preparation for store '{}': JPQL parse cache size={}, statement cache size={}, " +
+                "canonicalize null parameters={}", storeName, parseCacheSize, statementCacheSize,
+                canonicalizeNullParameters.get(storeName));
+    }
+
+    /**
+     * @return maximum number of parsed JPQL queries kept by EclipseLink for the data store
+     */
+    public int getJpqlParseCacheSize(String storeName) {
+        return getSession(storeName).getProject().getJPQLParseCacheMaxSize();
+    }
+
+    /**
+     * Replaces the JPQL parse cache of the data store with an empty cache of the given size.
+     */
+    public void setJpqlParseCacheSize(String storeName, int size) {
+        getSession(storeName).getProject().setJPQLParseCacheMaxSize(size);
+    }
+
+    /**
+     * Discards parsed JPQL queries of the data store.
+     */
+    public void clearJpqlParseCache(String storeName) {
+        getSession(storeName).getProject().getJPQLParseCache().clear();
+    }
+
+    /**
+     * @return maximum number of prepared statements cached for a database connection of the data store, 0 if
+     * statements are not cached
+     */
+    public int getStatementCacheSize(String storeName) {
+        DatabaseLogin login = getSession(storeName).getLogin();
+        return login.shouldCacheAllStatements() ? login.getStatementCacheSize() : 0;
+    }
+
+    /**
+     * Sets the maximum number of prepared statements cached for a database connection of the data store.
+     * 0 disables caching of statements.
+     */
+    public void setStatementCacheSize(String storeName, int size) {
+        applyStatementCacheSize(getSession(storeName), size);
+    }
+
+    /**
+     * @return whether comparisons with null parameters are replaced with {@code is null} statements in queries of
+     * the data store instead of disabling preparation of the query
+     */
+    public boolean isCanonicalizeNullParameters(String storeName) {
+        return canonicalizeNullParameters.getOrDefault(storeName, properties.isCanonicalizeNullParameters());
+    }
+
+    public void setCanonicalizeNullParameters(String storeName, boolean canonicalize) {
+        Boolean previous = canonicalizeNullParameters.put(storeName, canonicalize);
+        if (previous == null || previous != canonicalize) {
+            // cached transformations may contain canonicalized comparisons
+            transformedQueryCache.invalidateAll();
+        }
+    }
+
+    protected void applyStatementCacheSize(Session session, int size) {
+        DatabaseLogin login = session.getLogin();
+        if (size > 0) {
+            login.setStatementCacheSize(size);
+            login.setShouldCacheAllStatements(true);
+        } else {
+            login.setShouldCacheAllStatements(false);
+        }
+    }
+
+    protected Session getSession(String storeName) {
+        Session session = sessions.get(storeName);
+        if (session == null) {
+            throw new IllegalArgumentException("Session of data store '" + storeName + "' is not initialized");
+        }
+        return session;
+    }
+
+    protected String getStoreName(Session session) {
+        String storeName = (String) session.getProperty(PersistenceUnitProperties.STORE_NAME_PROPERTY);
+        return Strings.isNullOrEmpty(storeName) ? Stores.MAIN : storeName;
+    }
+
+    protected int getIntProperty(String name, String storeName, int defaultValue) {
+        String value = getStoreProperty(name, storeName);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    @Nullable
+    protected String getStoreProperty(String name, String storeName) {
+        if (Stores.isMain(storeName)) {
+            return null;
+        }
+        return StringUtils.trimToNull(environment.getProperty(name + "_" + storeName));
+    }
+}
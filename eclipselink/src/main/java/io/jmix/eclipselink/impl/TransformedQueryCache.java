@@ -0,0 +1,137 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.eclipselink.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.jmix.eclipselink.EclipselinkProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Caches results of the JPQL transformation performed by {@link JmixEclipseLinkQuery} before the query is passed
+ * to EclipseLink.
+ * <p>
+ * The result of the transformation depends on the query string (with constants and macros already expanded),
+ * on whether paging requires ordering by id and on the shape of the query parameters: which of them are null,
+ * empty collections, collections or case-insensitive strings. All of these are parts of the {@link Key}.
+ */
+@Component("eclipselink_TransformedQueryCache")
+public class TransformedQueryCache {
+
+    @Autowired
+    protected EclipselinkProperties properties;
+
+    protected Cache<Key, TransformedQuery> queries;
+
+    @PostConstruct
+    protected void init() {
+        if (properties.getTransformedQueryCacheSize() > 0) {
+            queries = CacheBuilder.newBuilder()
+                    .maximumSize(properties.getTransformedQueryCacheSize())
+                    .build();
+        }
+    }
+
+    public boolean isEnabled() {
+        return queries != null;
+    }
+
+    @Nullable
+    public TransformedQuery get(Key key) {
+        return queries == null ? null : queries.getIfPresent(key);
+    }
+
+    public void put(Key key, TransformedQuery transformedQuery) {
+        if (queries != null) {
+            queries.put(key, transformedQuery);
+        }
+    }
+
+    public void invalidateAll() {
+        if (queries != null) {
+            queries.invalidateAll();
+        }
+    }
+
+    public static class Key {
+        private final String queryString;
+        private final boolean orderByIdForPaging;
+        private final List<String> paramsShape;
+        private final int hashCode;
+
+        /**
+         * @param queryString        query string with expanded constants and macros
+         * @param orderByIdForPaging whether the query is executed with a first result greater than zero
+         * @param paramsShape        sorted list of parameter descriptors, see {@link JmixEclipseLinkQuery}
+         */
+        public Key(String queryString, boolean orderByIdForPaging, List<String> paramsShape) {
+            this.queryString = queryString;
+            this.orderByIdForPaging = orderByIdForPaging;
+            this.paramsShape = paramsShape;
+            this.hashCode = Objects.hash(queryString, orderByIdForPaging, paramsShape);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+            return hashCode == key.hashCode
+                    && orderByIdForPaging == key.orderByIdForPaging
+                    && queryString.equals(key.queryString)
+                    && paramsShape.equals(key.paramsShape);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    public static class TransformedQuery {
+        private final String queryString;
+        private final Set<String> removedParams;
+
+        public TransformedQuery(String queryString, Set<String> removedParams) {
+            this.queryString = queryString;
+            this.removedParams = Collections.unmodifiableSet(removedParams);
+        }
+
+        /**
+         * @return query string to be passed to EclipseLink
+         */
+        public String getQueryString() {
+            return queryString;
+        }
+
+        /**
+         * @return names of the parameters excluded from the query by the transformation
+         */
+        public Set<String> getRemovedParams() {
+            return removedParams;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.eclipselink.impl;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a value query stored by columns: an array of values for each property of
+ * {@link io.jmix.core.ValueLoadContext#getProperties()}.
+ *
+ * @see JpaDataStore#loadValueColumns(io.jmix.core.ValueLoadContext)
+ */
+public class ValueColumns {
+
+    protected final List<String> properties;
+    protected final Object[][] columns;
+    protected final int size;
+
+    public ValueColumns(List<String> properties, Object[][] columns, int size) {
+        this.properties = Collections.unmodifiableList(properties);
+        this.columns = columns;
+        this.size = size;
+    }
+
+    /**
+     * Creates columns from the rows of a query result. A row is an array of selected values or a single value
+     * if the query selects one expression. Values of the denied properties are not copied.
+     *
+     * @param deniedIndexes indexes of the properties that cannot be read
+     */
+    public static ValueColumns fromRows(List<String> properties, List<?> rows, Iterable<Integer> deniedIndexes) {
+        Object[][] columns = new Object[properties.size()][rows.size()];
+        boolean[] denied = new boolean[columns.length];
+        for (Integer index : deniedIndexes) {
+            if (index < columns.length) {
+                denied[index] = true;
+            }
+        }
+        for (int row = 0; row < rows.size(); row++) {
+            Object value = rows.get(row);
+            if (value instanceof Object[]) {
+                Object[] array = (Object[]) value;
+                for (int column = 0; column < columns.length && column < array.length; column++) {
+                    if (!denied[column]) {
+                        columns[column][row] = array[column];
+                    }
+                }
+            } else if (columns.length > 0 && !denied[0]) {
+                columns[0][row] = value;
+            }
+        }
+        return new ValueColumns(properties, columns, rows.size());
+    }
+
+    public List<String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return values of the given property, the array length is equal to {@link #size()}
+     */
+    public Object[] getColumn(String property) {
+        int index = properties.indexOf(property);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown property: " + property);
+        }
+        return columns[index];
+    }
+
+    @Nullable
+    public Object getValue(int row, String property) {
+        return getColumn(property)[row];
+    }
+}
@@ -17,6 +17,7 @@
 package io.jmix.eclipselink.impl.entitycache;
 
 
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -44,6 +45,23 @@ public interface QueryCache {
      */
     void invalidate(Set<String> typeNames);
 
+    /**
+     * Discards cached query results affected by the update of instances of metaClass name {@code typeName}
+     * with identifiers {@code ids}. Results that are {@link QueryResult#isInvalidatedByIds() invalidated by ids}
+     * are discarded only if they contain any of the ids, other results are discarded by type.
+     */
+    default void invalidate(String typeName, Collection<?> ids) {
+        invalidate(typeName);
+    }
+
+    /**
+     * Discards cached results of scalar queries ({@link QueryResult#isValues()}) for metaClass names
+     * {@code typeNames}. Results containing identifiers of entity instances are kept.
+     */
+    default void invalidateValues(Set<String> typeNames) {
+        invalidate(typeNames);
+    }
+
     /**
      * Discards all queries results in the cache.
      */
@@ -16,6 +16,7 @@
 
 package io.jmix.eclipselink.impl.entitycache;
 
+import com.google.common.collect.Lists;
 import io.jmix.core.Entity;
 import io.jmix.core.FetchPlan;
 import io.jmix.core.Metadata;
@@ -25,15 +26,20 @@ import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.metamodel.model.MetadataObject;
 import io.jmix.data.PersistenceHints;
 import io.jmix.data.StoreAwareLocator;
+import io.jmix.data.persistence.DbmsFeatures;
+import io.jmix.data.persistence.DbmsSpecifics;
 import io.jmix.eclipselink.EclipselinkProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.Nullable;
 import javax.persistence.EntityManager;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.NoResultException;
 import javax.persistence.TypedQuery;
+import java.io.Serializable;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -50,6 +56,8 @@ public class QueryCacheManager {
     protected MetadataTools metadataTools;
     @Autowired
     protected StoreAwareLocator storeAwareLocator;
+    @Autowired
+    protected DbmsSpecifics dbmsSpecifics;
 
     protected static final Logger log = LoggerFactory.getLogger(QueryCacheManager.class);
 
@@ -60,6 +68,14 @@ public class QueryCacheManager {
         return properties.isQueryCacheEnabled();
     }
 
+    /**
+     * Returns true if updates of existing instances discard only cached results of simple queries that contain
+     * the updated instances, see {@link QueryResult#isInvalidatedByIds()}
+     */
+    public boolean isInvalidationByIds() {
+        return properties.isQueryCacheInvalidationByIds();
+    }
+
     /**
      * Get query results from query cache by specified {@code queryKey}
      */
@@ -76,8 +92,12 @@ public class QueryCacheManager {
             if (!metadataTools.isCacheable(metaClass)) {
                 log.warn("Using cacheable query without entity cache for {}", queryResult.getType());
             }
-            for (Object id : queryResult.getResult()) {
-                resultList.add(em.find(metaClass.getJavaClass(), id, PersistenceHints.builder().withFetchPlans(fetchPlans).build()));
+            if (properties.isQueryCacheBatchLoading() && !metadataTools.hasCompositePrimaryKey(metaClass)) {
+                resultList.addAll(findByIds(em, metaClass, queryResult.getResult(), fetchPlans));
+            } else {
+                for (Object id : queryResult.getResult()) {
+                    resultList.add(em.find(metaClass.getJavaClass(), id, PersistenceHints.builder().withFetchPlans(fetchPlans).build()));
+                }
             }
         } else {
             log.debug("Query results are not found in cache: {}", queryKey.printDescription());
@@ -121,17 +141,32 @@ public class QueryCacheManager {
      * @param type         - result entity type (metaClass name)
      * @param relatedTypes - query dependent types (metaClass names). It's a list of entity types used in query
      */
-    @SuppressWarnings("unchecked")
     public void putResultToCache(QueryKey queryKey, List resultList, String type, Set<String> relatedTypes) {
+        putResultToCache(queryKey, resultList, type, relatedTypes, false);
+    }
+
+    /**
+     * Put query results into query cache for specified query {@code queryKey}.
+     * Results are extracted as identifiers from {@code resultList}
+     *
+     * @param type             - result entity type (metaClass name)
+     * @param relatedTypes     - query dependent types (metaClass names). It's a list of entity types used in query
+     * @param invalidatedByIds - whether updates of existing instances cannot change the set of instances returned
+     *                         by the query, see {@link QueryResult#isInvalidatedByIds()}
+     */
+    @SuppressWarnings("unchecked")
+    public void putResultToCache(QueryKey queryKey, List resultList, String type, Set<String> relatedTypes,
+                                 boolean invalidatedByIds) {
         QueryResult queryResult;
+        boolean byIds = invalidatedByIds && isInvalidationByIds();
         if (resultList.size() > 0) {
             List idList = (List) resultList.stream()
                     .filter(item -> item instanceof Entity)
                     .map(item -> EntityValues.getId(((Entity) item)))
                     .collect(Collectors.toList());
-            queryResult = new QueryResult(idList, type, getDescendants(relatedTypes));
+            queryResult = new QueryResult(idList, type, getDescendants(relatedTypes), null, byIds);
         } else {
-            queryResult = new QueryResult(Collections.emptyList(), type, getDescendants(relatedTypes));
+            queryResult = new QueryResult(Collections.emptyList(), type, getDescendants(relatedTypes), null, byIds);
         }
         log.debug("Put results into cache for query: {}, relatedTypes: {}", queryKey.printDescription(), relatedTypes);
         queryCache.put(queryKey, queryResult);
@@ -145,18 +180,85 @@ public class QueryCacheManager {
      * @param relatedTypes - query dependent types (metaClass names). It's a list of entity types used in query
      * @param exception    - store exception in the query cache if {@link TypedQuery#getSingleResult()} throws exception
      */
-    @SuppressWarnings("unchecked")
     public <T> void putResultToCache(QueryKey queryKey, T result, String type, Set<String> relatedTypes, RuntimeException exception) {
+        putResultToCache(queryKey, result, type, relatedTypes, exception, false);
+    }
+
+    /**
+     * Put query results into query cache for specified query {@code queryKey}.
+     * Results are extracted as identifiers from entity {@code result}
+     *
+     * @param type             - result entity type (metaClass name)
+     * @param relatedTypes     - query dependent types (metaClass names). It's a list of entity types used in query
+     * @param exception        - store exception in the query cache if {@link TypedQuery#getSingleResult()} throws exception
+     * @param invalidatedByIds - whether updates of existing instances cannot change the set of instances returned
+     *                         by the query, see {@link QueryResult#isInvalidatedByIds()}
+     */
+    public <T> void putResultToCache(QueryKey queryKey, T result, String type, Set<String> relatedTypes,
+                                     RuntimeException exception, boolean invalidatedByIds) {
         QueryResult queryResult;
+        boolean byIds = invalidatedByIds && isInvalidationByIds();
         if (exception == null) {
-            queryResult = new QueryResult(Collections.singletonList(EntityValues.getId(((Entity) result))), type, relatedTypes);
+            queryResult = new QueryResult(Collections.singletonList(EntityValues.getId(((Entity) result))), type,
+                    relatedTypes, null, byIds);
         } else {
-            queryResult = new QueryResult(Collections.emptyList(), type, relatedTypes, exception);
+            queryResult = new QueryResult(Collections.emptyList(), type, relatedTypes, exception, byIds);
         }
         log.debug("Put results into cache for query: {}, relatedTypes: {}", queryKey.printDescription(), relatedTypes);
         queryCache.put(queryKey, queryResult);
     }
 
+    /**
+     * Get results of a scalar query (e.g. count or value query) from query cache by specified {@code queryKey}.
+     * If query is cached and the single result was not found, a new {@link NoResultException} is thrown.
+     *
+     * @return copy of the cached values or null if query results are not found in cache
+     */
+    @Nullable
+    public List<Object> getValuesFromCache(QueryKey queryKey) {
+        log.debug("Looking for query in cache: {}", queryKey.printDescription());
+        QueryResult queryResult = queryCache.get(queryKey);
+        if (queryResult != null && queryResult.isValues()) {
+            if (queryResult.getException() != null) {
+                // the cached exception is not rethrown as it can be thrown concurrently by other threads
+                throw new NoResultException(queryResult.getException().getMessage());
+            }
+            List<Object> values = new ArrayList<>(queryResult.getResult().size());
+            for (Object value : queryResult.getResult()) {
+                values.add(value instanceof Object[] ? ((Object[]) value).clone() : value);
+            }
+            return values;
+        }
+        log.debug("Query results are not found in cache: {}", queryKey.printDescription());
+        return null;
+    }
+
+    /**
+     * Put results of a scalar query (e.g. count or value query) into query cache for specified query {@code queryKey}.
+     * Empty results are cached as well. Results containing entity instances or non-serializable values are not cached.
+     *
+     * @param values       - query results: values or arrays of values for multi-column queries
+     * @param type         - main entity type of the query (metaClass name)
+     * @param relatedTypes - query dependent types (metaClass names). It's a list of entity types used in query
+     * @param exception    - store {@link NoResultException} in the query cache if {@link TypedQuery#getSingleResult()}
+     *                     finds no result
+     */
+    public void putValuesToCache(QueryKey queryKey, List<?> values, String type, Set<String> relatedTypes,
+                                 @Nullable NoResultException exception) {
+        List<Object> cachedValues = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (!isCacheableValue(value)) {
+                log.debug("Results of query {} contain non-cacheable value: {}", queryKey.printDescription(), value);
+                return;
+            }
+            cachedValues.add(value instanceof Object[] ? ((Object[]) value).clone() : value);
+        }
+        QueryResult queryResult = new QueryResult(cachedValues, type, getDescendants(relatedTypes), exception,
+                false, true);
+        log.debug("Put values into cache for query: {}, relatedTypes: {}", queryKey.printDescription(), relatedTypes);
+        queryCache.put(queryKey, queryResult);
+    }
+
     /**
      * Discards cached query results for java class (associated with metaClass) {@code typeClass}
      */
@@ -187,12 +289,93 @@ public class QueryCacheManager {
         }
     }
 
+    /**
+     * Discards cached results of scalar queries for metaClass names {@code typeNames} with updated or deleted
+     * instances. Unlike entity results, they contain attribute values and are not refreshed from the entity cache.
+     */
+    public void invalidateValues(Set<String> typeNames) {
+        if (isEnabled()) {
+            if (typeNames != null && typeNames.size() > 0) {
+                queryCache.invalidateValues(typeNames);
+            }
+        }
+    }
+
+    /**
+     * Discards cached query results for metaClass names {@code typeNames} with created or deleted instances and
+     * for metaClass names with updated instances {@code updatedIds}. If {@link #isInvalidationByIds()} is true,
+     * updated instances discard only the results of simple queries that contain them.
+     */
+    public void invalidate(Set<String> typeNames, Map<String, ? extends Collection<?>> updatedIds) {
+        if (isEnabled()) {
+            if (!isInvalidationByIds()) {
+                Set<String> allTypeNames = new HashSet<>(typeNames);
+                allTypeNames.addAll(updatedIds.keySet());
+                invalidate(allTypeNames);
+                return;
+            }
+            invalidate(typeNames);
+            for (Map.Entry<String, ? extends Collection<?>> entry : updatedIds.entrySet()) {
+                if (!typeNames.contains(entry.getKey())) {
+                    queryCache.invalidate(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
     public void invalidateAll() {
         if (isEnabled()) {
             queryCache.invalidateAll();
         }
     }
 
+    /**
+     * Loads entities by the list of cached identifiers using {@code in} queries limited by
+     * {@link DbmsFeatures#getMaxIdsBatchSize()}. Loading by {@code EntityManager.find()} would execute a query
+     * per identifier if fetch plans are specified, even for instances present in the shared entity cache.
+     *
+     * @return list of entities in the order of {@code ids}, with nulls for entities that are not found
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> List<T> findByIds(EntityManager em, MetaClass metaClass, List<?> ids, List<FetchPlan> fetchPlans) {
+        Class<T> javaClass = metaClass.getJavaClass();
+        Map<Object, T> entities = new HashMap<>(ids.size());
+        List<Object> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+
+        String queryString = String.format("select e from %s e where e.%s in :ids",
+                metaClass.getName(), metadataTools.getPrimaryKeyName(metaClass));
+        Integer batchSize = dbmsSpecifics.getDbmsFeatures(metaClass.getStore().getName()).getMaxIdsBatchSize();
+
+        for (List<Object> partition : Lists.partition(distinctIds, batchSize == null ? Integer.MAX_VALUE : batchSize)) {
+            TypedQuery<T> query = em.createQuery(queryString, javaClass);
+            query.setParameter("ids", partition);
+            if (!fetchPlans.isEmpty()) {
+                query.setHint(PersistenceHints.FETCH_PLAN, fetchPlans);
+            }
+            for (T entity : query.getResultList()) {
+                entities.put(EntityValues.getId((Entity) entity), entity);
+            }
+        }
+
+        List<T> result = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            result.add(entities.get(id));
+        }
+        return result;
+    }
+
+    protected boolean isCacheableValue(@Nullable Object value) {
+        if (value instanceof Object[]) {
+            for (Object item : (Object[]) value) {
+                if (!isCacheableValue(item)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return value == null || !(value instanceof Entity) && value instanceof Serializable;
+    }
+
     protected Set<String> getDescendants(Set<String> relatedTypes) {
         if (relatedTypes == null) return null;
         Set<String> newRelatedTypes = new HashSet<>();
@@ -28,16 +28,30 @@ public class QueryResult implements Serializable {
     protected final String type;
     protected final Set<String> relatedTypes;
     protected final RuntimeException exception;
+    protected final boolean invalidatedByIds;
+    protected final boolean values;
 
     public QueryResult(List<?> result, String type, Set<String> relatedTypes) {
         this(result, type, relatedTypes, null);
     }
 
     public QueryResult(List<?> result, String type, Set<String> relatedTypes, RuntimeException exception) {
+        this(result, type, relatedTypes, exception, false);
+    }
+
+    public QueryResult(List<?> result, String type, Set<String> relatedTypes, RuntimeException exception,
+                       boolean invalidatedByIds) {
+        this(result, type, relatedTypes, exception, invalidatedByIds, false);
+    }
+
+    public QueryResult(List<?> result, String type, Set<String> relatedTypes, RuntimeException exception,
+                       boolean invalidatedByIds, boolean values) {
         this.result = Collections.unmodifiableList(result);
         this.type = type;
         this.relatedTypes = relatedTypes;
         this.exception = exception;
+        this.invalidatedByIds = invalidatedByIds;
+        this.values = values;
     }
 
     public List getResult() {
@@ -55,4 +69,20 @@ public class QueryResult implements Serializable {
     public RuntimeException getException() {
         return exception;
     }
+
+    /**
+     * @return true if updates of existing instances cannot change the set of instances returned by the query,
+     * so the result should be discarded on update only if it contains the updated instance
+     */
+    public boolean isInvalidatedByIds() {
+        return invalidatedByIds;
+    }
+
+    /**
+     * @return true if the result contains values returned by a scalar query (e.g. count) instead of identifiers
+     * of entity instances
+     */
+    public boolean isValues() {
+        return values;
+    }
 }
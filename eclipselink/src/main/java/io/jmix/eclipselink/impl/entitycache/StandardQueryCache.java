@@ -24,18 +24,73 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
+import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Query cache based on the {@link #QUERY_CACHE_NAME} Spring cache.
+ * <p>
+ * If the cache is local to the application instance ({@link ConcurrentMapCache} or Caffeine), keeps a reverse index
+ * from entity names to the keys of cached queries which depend on them, so invalidation by types evicts only
+ * the affected entries instead of scanning the whole cache. Results that are
+ * {@link QueryResult#isInvalidatedByIds() invalidated by ids} are also indexed by the ids they contain.
+ * A shared or distributed cache can contain entries put by other instances, so it is scanned or fully invalidated.
+ */
 @Component("eclipselink_QueryCache")
 public class StandardQueryCache implements QueryCache {
 
     protected Cache queries;
 
+    /**
+     * Whether the index of cached queries is maintained, see {@link #isLocalCache(Cache)}.
+     */
+    protected boolean indexed;
+
+    /**
+     * Keys of cached queries by related type names.
+     */
+    protected ConcurrentMap<String, Set<QueryKey>> keysByType = new ConcurrentHashMap<>();
+
+    /**
+     * Related type names by keys of cached queries.
+     */
+    protected ConcurrentMap<QueryKey, Set<String>> typesByKey = new ConcurrentHashMap<>();
+
+    /**
+     * Keys of cached queries invalidated by ids by the ids contained in their results.
+     */
+    protected ConcurrentMap<Object, Set<QueryKey>> keysById = new ConcurrentHashMap<>();
+
+    /**
+     * Ids contained in the results of cached queries invalidated by ids.
+     */
+    protected ConcurrentMap<QueryKey, List<?>> idsByKey = new ConcurrentHashMap<>();
+
+    /**
+     * Keys of cached results of scalar queries, see {@link QueryResult#isValues()}.
+     */
+    protected Set<QueryKey> valueKeys = ConcurrentHashMap.newKeySet();
+
+    protected AtomicInteger indexSizeToPrune = new AtomicInteger(MIN_INDEX_SIZE_TO_PRUNE);
+
+    /**
+     * Allows concurrent puts and excludes them while entries are being invalidated or the index is being pruned,
+     * so an entry cannot be put after its key is removed from the index by a concurrent invalidation.
+     */
+    protected ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
     @Autowired
     protected CacheManager cacheManager;
     @Autowired
@@ -43,6 +98,11 @@ public class StandardQueryCache implements QueryCache {
 
     public static final String QUERY_CACHE_NAME = "jmix-eclipselink-query-cache";
 
+    protected static final int MIN_INDEX_SIZE_TO_PRUNE = 1000;
+
+    protected static final boolean CAFFEINE_PRESENT = ClassUtils.isPresent(
+            "org.springframework.cache.caffeine.CaffeineCache", StandardQueryCache.class.getClassLoader());
+
     protected static final Logger log = LoggerFactory.getLogger(QueryCache.class);
 
     @PostConstruct
@@ -51,6 +111,31 @@ public class StandardQueryCache implements QueryCache {
         if (queries == null) {
             throw new IllegalStateException(String.format("Unable to find cache: %s", QUERY_CACHE_NAME));
         }
+        indexed = isLocalCache(queries);
+    }
+
+    /**
+     * Returns true if all entries of the cache are put by this application instance, so they can be tracked
+     * by the index.
+     */
+    protected boolean isLocalCache(Cache cache) {
+        return cache instanceof ConcurrentMapCache
+                || (CAFFEINE_PRESENT && CaffeineSupport.isCaffeineCache(cache));
+    }
+
+    /**
+     * Checks the presence of an entry in the underlying local cache without recording an access, so that
+     * maintenance of the index does not affect the expiration and eviction of entries.
+     */
+    protected boolean containsQuietly(QueryKey queryKey) {
+        Object nativeCache = queries.getNativeCache();
+        if (nativeCache instanceof Map) {
+            return ((Map<?, ?>) nativeCache).containsKey(queryKey);
+        }
+        if (CAFFEINE_PRESENT && CaffeineSupport.isCaffeineCache(queries)) {
+            return CaffeineSupport.containsKey(queries, queryKey);
+        }
+        return queries.get(queryKey) != null;
     }
 
     @Override
@@ -60,7 +145,24 @@ public class StandardQueryCache implements QueryCache {
 
     @Override
     public void put(QueryKey queryKey, QueryResult queryResult) {
-        queries.put(queryKey, queryResult);
+        if (!indexed) {
+            queries.put(queryKey, queryResult);
+            return;
+        }
+        indexLock.readLock().lock();
+        try {
+            addToIndex(queryKey, queryResult.getRelatedTypes());
+            if (queryResult.isValues()) {
+                valueKeys.add(queryKey);
+            }
+            if (queryResult.isInvalidatedByIds()) {
+                addToIdIndex(queryKey, queryResult.getResult());
+            }
+            queries.put(queryKey, queryResult);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        pruneIndexIfNeeded();
     }
 
     @Override
@@ -75,19 +177,98 @@ public class StandardQueryCache implements QueryCache {
         invalidateByTypes(typeNames);
     }
 
+    @Override
+    public void invalidate(String typeName, Collection<?> ids) {
+        log.debug("Invalidate cache for type {} and ids {}", typeName, ids);
+        if (!indexed) {
+            invalidateByTypes(Sets.newHashSet(typeName));
+            return;
+        }
+        indexLock.writeLock().lock();
+        try {
+            Set<QueryKey> keys = keysByType.get(typeName);
+            if (keys != null) {
+                for (QueryKey queryKey : new ArrayList<>(keys)) {
+                    if (!idsByKey.containsKey(queryKey)) {
+                        evict(queryKey);
+                    }
+                }
+            }
+            for (Object id : ids) {
+                Set<QueryKey> idKeys = keysById.remove(id);
+                if (idKeys != null) {
+                    for (QueryKey queryKey : idKeys) {
+                        evict(queryKey);
+                    }
+                }
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void invalidateValues(Set<String> typeNames) {
+        log.debug("Invalidate cached values for types {}", typeNames);
+        if (!indexed) {
+            invalidateByScan(typeNames, true);
+            return;
+        }
+        indexLock.writeLock().lock();
+        try {
+            for (String typeName : typeNames) {
+                Set<QueryKey> keys = keysByType.get(typeName);
+                if (keys != null) {
+                    for (QueryKey queryKey : new ArrayList<>(keys)) {
+                        if (valueKeys.contains(queryKey)) {
+                            evict(queryKey);
+                        }
+                    }
+                }
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    protected void evict(QueryKey queryKey) {
+        queries.evictIfPresent(queryKey);
+        removeFromIndex(queryKey);
+    }
+
     protected void invalidateByTypes(Set<String> typeNames) {
+        if (!indexed) {
+            invalidateByScan(typeNames, false);
+            return;
+        }
+        indexLock.writeLock().lock();
+        try {
+            for (String typeName : typeNames) {
+                Set<QueryKey> keys = keysByType.remove(typeName);
+                if (keys != null) {
+                    for (QueryKey queryKey : keys) {
+                        evict(queryKey);
+                    }
+                }
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    protected void invalidateByScan(Set<String> typeNames, boolean valuesOnly) {
         if (cacheOperations.isIterableCache(queries)) {
             Set<QueryKey> evicted = new HashSet<>();
 
             cacheOperations.<QueryKey, QueryResult>forEach(queries, (queryKey, queryResult) -> {
-                if (CollectionUtils.containsAny(queryResult.getRelatedTypes(), typeNames)) {
+                if ((!valuesOnly || queryResult.isValues())
+                        && CollectionUtils.containsAny(queryResult.getRelatedTypes(), typeNames)) {
                     evicted.add(queryKey);
                 }
             });
 
             for (QueryKey queryKey : evicted) {
                 queries.evictIfPresent(queryKey);
-
             }
         } else {
             queries.invalidate();
@@ -97,7 +278,17 @@ public class StandardQueryCache implements QueryCache {
     @Override
     public void invalidateAll() {
         log.debug("Invalidate all cache");
-        queries.invalidate();
+        indexLock.writeLock().lock();
+        try {
+            queries.invalidate();
+            keysByType.clear();
+            typesByKey.clear();
+            keysById.clear();
+            idsByKey.clear();
+            valueKeys.clear();
+        } finally {
+            indexLock.writeLock().unlock();
+        }
     }
 
     @Override
@@ -110,4 +301,82 @@ public class StandardQueryCache implements QueryCache {
             return 0;
         }
     }
+
+    protected void addToIndex(QueryKey queryKey, @Nullable Set<String> relatedTypes) {
+        if (relatedTypes == null || relatedTypes.isEmpty()) {
+            return;
+        }
+        typesByKey.put(queryKey, relatedTypes);
+        for (String typeName : relatedTypes) {
+            keysByType.computeIfAbsent(typeName, k -> ConcurrentHashMap.newKeySet()).add(queryKey);
+        }
+    }
+
+    protected void addToIdIndex(QueryKey queryKey, List<?> ids) {
+        idsByKey.put(queryKey, ids);
+        for (Object id : ids) {
+            keysById.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(queryKey);
+        }
+    }
+
+    protected void removeFromIndex(QueryKey queryKey) {
+        valueKeys.remove(queryKey);
+        Set<String> relatedTypes = typesByKey.remove(queryKey);
+        if (relatedTypes != null) {
+            for (String typeName : relatedTypes) {
+                Set<QueryKey> keys = keysByType.get(typeName);
+                if (keys != null) {
+                    keys.remove(queryKey);
+                }
+            }
+        }
+        List<?> ids = idsByKey.remove(queryKey);
+        if (ids != null) {
+            for (Object id : ids) {
+                Set<QueryKey> keys = keysById.get(id);
+                if (keys != null) {
+                    keys.remove(queryKey);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes keys of the entries evicted by the underlying cache itself (e.g. because of its size limit)
+     * from the index. It is done each time the index grows twice since the last pruning. The index is maintained
+     * for local caches only, so checking the presence of entries does not require remote calls.
+     */
+    protected void pruneIndexIfNeeded() {
+        int sizeToPrune = indexSizeToPrune.get();
+        if (typesByKey.size() < sizeToPrune || !indexSizeToPrune.compareAndSet(sizeToPrune, Integer.MAX_VALUE)) {
+            return;
+        }
+        indexLock.writeLock().lock();
+        try {
+            for (QueryKey queryKey : typesByKey.keySet()) {
+                if (!containsQuietly(queryKey)) {
+                    removeFromIndex(queryKey);
+                }
+            }
+            keysByType.values().removeIf(Set::isEmpty);
+            keysById.values().removeIf(Set::isEmpty);
+        } finally {
+            indexLock.writeLock().unlock();
+            indexSizeToPrune.set(Math.max(MIN_INDEX_SIZE_TO_PRUNE, typesByKey.size() * 2));
+        }
+    }
+
+    /**
+     * Refers to Caffeine classes, so it is loaded only if they are present.
+     */
+    protected static class CaffeineSupport {
+
+        protected static boolean isCaffeineCache(Cache cache) {
+            return cache instanceof CaffeineCache;
+        }
+
+        protected static boolean containsKey(Cache cache, Object key) {
+            return ((CaffeineCache) cache).getNativeCache().asMap().containsKey(key);
+        }
+    }
 }
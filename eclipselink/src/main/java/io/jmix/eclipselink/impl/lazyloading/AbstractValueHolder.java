@@ -34,6 +34,7 @@ import org.springframework.beans.factory.BeanFactory;
 
 import java.io.Serializable;
 import java.rmi.server.ObjID;
+import java.util.List;
 import java.util.Objects;
 
 public abstract class AbstractValueHolder extends UnitOfWorkValueHolder implements ValueHolderInterface, WeavedAttributeValueHolderInterface,
@@ -47,6 +48,9 @@ public abstract class AbstractValueHolder extends UnitOfWorkValueHolder implemen
     private volatile boolean isInstantiated;
     private volatile Object value;
     private LoadOptions loadOptions;
+    private transient ValueHoldersBatch batch;
+    private transient volatile boolean preloaded;
+    private transient Object preloadedValue;
 
     public AbstractValueHolder(BeanFactory beanFactory,
                                ValueHolderInterface originalValueHolder,
@@ -272,6 +276,9 @@ public abstract class AbstractValueHolder extends UnitOfWorkValueHolder implemen
                 value = originalValueHolder.getValue();
             } else {
                 synchronized (this) {
+                    if (batch != null) {
+                        batch.load(this);
+                    }
                     value = loadValue();
                     afterLoadValue(value);
                 }
@@ -283,6 +290,16 @@ public abstract class AbstractValueHolder extends UnitOfWorkValueHolder implemen
 
     protected abstract Object loadValue();
 
+    /**
+     * Loads values for the given holders of one {@link ValueHoldersBatch} at once and passes them to
+     * {@link #setPreloadedValue(Object)}. Holders that do not support batch loading do nothing, so each of them
+     * loads its value separately.
+     *
+     * @param holders holders of the same property, including this one
+     */
+    protected void loadValues(List<AbstractValueHolder> holders) {
+    }
+
     protected abstract void afterLoadValue(Object value);
 
     @Override
@@ -302,6 +319,26 @@ public abstract class AbstractValueHolder extends UnitOfWorkValueHolder implemen
         return loadOptions;
     }
 
+    void setBatch(ValueHoldersBatch batch) {
+        this.batch = batch;
+    }
+
+    /**
+     * @return true if the value has been loaded together with other holders of the batch
+     */
+    protected boolean isPreloaded() {
+        return preloaded;
+    }
+
+    protected Object getPreloadedValue() {
+        return preloadedValue;
+    }
+
+    protected void setPreloadedValue(Object preloadedValue) {
+        this.preloadedValue = preloadedValue;
+        this.preloaded = true;
+    }
+
     public Object getOwner() {
         return owner;
     }
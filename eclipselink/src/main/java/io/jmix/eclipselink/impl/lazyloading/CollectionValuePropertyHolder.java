@@ -53,11 +53,16 @@ public class CollectionValuePropertyHolder extends AbstractValueHolder {
 
     @Override
     protected Object loadValue() {
-        MetaClass metaClass = getMetadata().getClass(getOwner());
+        Object reloadedOwner;
+        if (isPreloaded()) {
+            reloadedOwner = getPreloadedValue();
+        } else {
+            MetaClass metaClass = getMetadata().getClass(getOwner());
 
-        LoadContext<?> loadContext = createLoadContextByOwner(metaClass);
+            LoadContext<?> loadContext = createLoadContextByOwner(metaClass);
 
-        Object reloadedOwner = getDataManager().load(loadContext);
+            reloadedOwner = getDataManager().load(loadContext);
+        }
         Collection<Object> value = EntityValues.getValue(reloadedOwner, getPropertyInfo().getName());
 
         getSecurityState(getOwner()).addErasedIds(getPropertyInfo().getName(),
@@ -78,17 +83,52 @@ public class CollectionValuePropertyHolder extends AbstractValueHolder {
         }
     }
 
+    /**
+     * Reloads owners of all holders with the collection attribute by one list of ids. The data store splits the ids
+     * into batches according to {@link io.jmix.data.persistence.DbmsFeatures#getMaxIdsBatchSize()}.
+     */
+    @Override
+    protected void loadValues(List<AbstractValueHolder> holders) {
+        MetaClass metaClass = getMetadata().getClass(getOwner());
+
+        Set<Object> ids = new LinkedHashSet<>();
+        for (AbstractValueHolder holder : holders) {
+            ids.add(Objects.requireNonNull(EntityValues.getId(holder.getOwner())));
+        }
+
+        LoadContext<?> loadContext = new LoadContext<>(metaClass)
+                .setIds(new ArrayList<>(ids))
+                .setFetchPlan(createOwnerFetchPlan(metaClass))
+                .setAccessConstraints(getLoadOptions().getAccessConstraints())
+                .setHints(getLoadOptions().getHints());
+
+        Map<Object, Object> ownersById = new HashMap<>();
+        for (Object reloadedOwner : getDataManager().loadList(loadContext)) {
+            ownersById.put(EntityValues.getId(reloadedOwner), reloadedOwner);
+        }
+
+        for (AbstractValueHolder holder : holders) {
+            Object reloadedOwner = ownersById.get(EntityValues.getId(holder.getOwner()));
+            if (reloadedOwner != null) {
+                holder.setPreloadedValue(reloadedOwner);
+            }
+        }
+    }
+
     protected LoadContext<?> createLoadContextByOwner(MetaClass metaClass) {
         return new LoadContext<>(metaClass)
                 .setId(Objects.requireNonNull(EntityValues.getId(getOwner())))
-                .setFetchPlan(
-                        getFetchPlans().builder(metaClass.getJavaClass())
-                                .add(getPropertyInfo().getName(), builder -> builder.addFetchPlan(FetchPlan.BASE))
-                                .build())
+                .setFetchPlan(createOwnerFetchPlan(metaClass))
                 .setAccessConstraints(getLoadOptions().getAccessConstraints())
                 .setHints(getLoadOptions().getHints());
     }
 
+    protected FetchPlan createOwnerFetchPlan(MetaClass metaClass) {
+        return getFetchPlans().builder(metaClass.getJavaClass())
+                .add(getPropertyInfo().getName(), builder -> builder.addFetchPlan(FetchPlan.BASE))
+                .build();
+    }
+
     protected void replaceCollectionExistingReferences(Collection<Object> collection, Object entityToReplace) {
         if (collection instanceof List) {
             for (ListIterator<Object> iterator = ((List<Object>) collection).listIterator(); iterator.hasNext(); ) {
@@ -30,6 +30,7 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.Nullable;
 import javax.persistence.Basic;
 import javax.persistence.FetchType;
 import java.io.Serializable;
@@ -66,12 +67,23 @@ public class JpaLazyLoadingListener implements DataStoreEventListener {
         if (fetchPlan == null) {
             fetchPlan = fetchPlanRepository.getFetchPlan(metaClass, FetchPlan.LOCAL);
         }
+        Map<String, ValueHoldersBatch> batches = new HashMap<>();
         for (Object entity : event.getResultEntities()) {
-            processValueHolders(entity, context, fetchPlan);
+            processValueHolders(entity, context, fetchPlan, batches);
         }
     }
 
     public void processValueHolders(Object entity, LoadContext<?> loadContext, FetchPlan fetchPlan) {
+        processValueHolders(entity, loadContext, fetchPlan, new HashMap<>());
+    }
+
+    /**
+     * Wraps value holders of not loaded reference attributes. Holders of the same attribute that can be loaded
+     * together are grouped into {@link ValueHoldersBatch}es kept in the given map, so that accessing the attribute
+     * of one entity loads it for all entities processed with this map.
+     */
+    public void processValueHolders(Object entity, LoadContext<?> loadContext, FetchPlan fetchPlan,
+                                    Map<String, ValueHoldersBatch> batches) {
         Map<Object, Set<FetchPlan>> collectedFetchPlans = new HashMap<>();
 
         if (fetchPlan != null) {
@@ -99,12 +111,18 @@ public class JpaLazyLoadingListener implements DataStoreEventListener {
                 if (property.getRange().isClass() && !metadataTools.isEmbedded(property) &&
                         !isPropertyContainedInFetchPlans(property, entry.getValue())) {
                     if (!entityStates.isLoaded(entry.getKey(), property.getName())) {
+                        AbstractValueHolder valueHolder = null;
                         if (property.getRange().getCardinality().isMany()) {
-                            processCollectionValueHolder(entry.getKey(), property, loadOptions);
+                            valueHolder = processCollectionValueHolder(entry.getKey(), property, loadOptions);
                         } else if (property.getRange().getCardinality() == Range.Cardinality.ONE_TO_ONE) {
-                            processOneToOneValueHolder(entry.getKey(), property, loadOptions);
+                            valueHolder = processOneToOneValueHolder(entry.getKey(), property, loadOptions);
                         } else if (property.getRange().getCardinality() == Range.Cardinality.MANY_TO_ONE) {
-                            processManyToOneValueHolder(entry.getKey(), property, loadOptions);
+                            valueHolder = processManyToOneValueHolder(entry.getKey(), property, loadOptions);
+                        }
+                        if (valueHolder instanceof CollectionValuePropertyHolder
+                                || valueHolder instanceof SingleValueOwningPropertyHolder) {
+                            batches.computeIfAbsent(metaClass.getName() + "." + property.getName(),
+                                    key -> new ValueHoldersBatch()).add(valueHolder);
                         }
                     }
                 }
@@ -112,7 +130,8 @@ public class JpaLazyLoadingListener implements DataStoreEventListener {
         }
     }
 
-    protected void processCollectionValueHolder(Object owner, MetaProperty property, LoadOptions loadOptions) {
+    @Nullable
+    protected AbstractValueHolder processCollectionValueHolder(Object owner, MetaProperty property, LoadOptions loadOptions) {
         Object valueHolder = getCollectionValueHolder(owner, property.getName());
         if (valueHolder != null && !(valueHolder instanceof AbstractValueHolder)) {
             AbstractValueHolder wrappedValueHolder =
@@ -121,10 +140,13 @@ public class JpaLazyLoadingListener implements DataStoreEventListener {
             wrappedValueHolder.setLoadOptions(LoadOptions.with(loadOptions));
 
             setCollectionValueHolder(owner, property.getName(), wrappedValueHolder);
+            return wrappedValueHolder;
         }
+        return null;
     }
 
-    protected void processOneToOneValueHolder(Object owner, MetaProperty property, LoadOptions loadOptions) {
+    @Nullable
+    protected AbstractValueHolder processOneToOneValueHolder(Object owner, MetaProperty property, LoadOptions loadOptions) {
         Object originalValueHolder = getSingleValueHolder(owner, property.getName());
 
         if (originalValueHolder != null && !(originalValueHolder instanceof AbstractValueHolder)) {
@@ -150,10 +172,13 @@ public class JpaLazyLoadingListener implements DataStoreEventListener {
             }
 
             setSingleValueHolder(owner, property.getName(), wrappedValueHolder);
+            return wrappedValueHolder;
         }
+        return null;
     }
 
-    protected void processManyToOneValueHolder(Object owner, MetaProperty property, LoadOptions loadOptions) {
+    @Nullable
+    protected AbstractValueHolder processManyToOneValueHolder(Object owner, MetaProperty property, LoadOptions loadOptions) {
         Object originalValueHolder = getSingleValueHolder(owner, property.getName());
 
         if (originalValueHolder != null && !(originalValueHolder instanceof AbstractValueHolder)) {
@@ -168,8 +193,10 @@ public class JpaLazyLoadingListener implements DataStoreEventListener {
                 wrappedValueHolder.setLoadOptions(LoadOptions.with(loadOptions));
 
                 setSingleValueHolder(owner, property.getName(), wrappedValueHolder);
+                return wrappedValueHolder;
             }
         }
+        return null;
     }
 
     protected void collectFetchPlans(Object instance, FetchPlan fetchPlan, Map<Object, Set<FetchPlan>> collectedFetchPlans) {
@@ -18,6 +18,7 @@ package io.jmix.eclipselink.impl.lazyloading;
 
 import io.jmix.core.LoadContext;
 import io.jmix.core.UuidProvider;
+import io.jmix.core.entity.EntityValues;
 import io.jmix.core.impl.SerializationContext;
 import io.jmix.core.metamodel.model.MetaClass;
 import io.jmix.core.metamodel.model.MetaProperty;
@@ -26,7 +27,7 @@ import org.eclipse.persistence.indirection.ValueHolderInterface;
 import org.springframework.beans.factory.BeanFactory;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.util.*;
 
 import static io.jmix.core.entity.EntitySystemAccess.getSecurityState;
 
@@ -49,22 +50,66 @@ public class SingleValueOwningPropertyHolder extends AbstractSingleValueHolder {
     }
 
     protected Object loadValue() {
+        Object value;
+        if (isPreloaded()) {
+            value = getPreloadedValue();
+        } else {
+            MetaClass metaClass = getMetadata().getClass(getPropertyInfo().getJavaType());
+            LoadOptions loadOptions = getLoadOptions();
+
+            LoadContext<?> loadContext = new LoadContext<>(metaClass)
+                    .setId(getEntityId())
+                    .setHint(PersistenceHints.SOFT_DELETION, false)
+                    .setHints(loadOptions.getHints())
+                    .setAccessConstraints(loadOptions.getAccessConstraints());
+
+            value = getDataManager().load(loadContext);
+        }
+
+        if (value == null) {
+            getSecurityState(getOwner()).addErasedId(getPropertyInfo().getName(), getEntityId());
+        }
+
+        return value;
+    }
+
+    /**
+     * Loads referenced entities of all holders by one list of ids. The data store splits the ids into batches
+     * according to {@link io.jmix.data.persistence.DbmsFeatures#getMaxIdsBatchSize()}.
+     */
+    @Override
+    protected void loadValues(List<AbstractValueHolder> holders) {
         MetaClass metaClass = getMetadata().getClass(getPropertyInfo().getJavaType());
         LoadOptions loadOptions = getLoadOptions();
 
+        Set<Object> ids = new LinkedHashSet<>();
+        for (AbstractValueHolder holder : holders) {
+            Object id = ((SingleValueOwningPropertyHolder) holder).getEntityId();
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
         LoadContext<?> loadContext = new LoadContext<>(metaClass)
-                .setId(getEntityId())
+                .setIds(new ArrayList<>(ids))
                 .setHint(PersistenceHints.SOFT_DELETION, false)
                 .setHints(loadOptions.getHints())
                 .setAccessConstraints(loadOptions.getAccessConstraints());
 
-        Object value = getDataManager().load(loadContext);
-
-        if (value == null) {
-            getSecurityState(getOwner()).addErasedId(getPropertyInfo().getName(), getEntityId());
+        Map<Object, Object> entitiesById = new HashMap<>();
+        for (Object entity : getDataManager().loadList(loadContext)) {
+            entitiesById.put(EntityValues.getId(entity), entity);
         }
 
-        return value;
+        for (AbstractValueHolder holder : holders) {
+            Object id = ((SingleValueOwningPropertyHolder) holder).getEntityId();
+            if (id != null) {
+                holder.setPreloadedValue(entitiesById.get(id));
+            }
+        }
     }
 
     protected Object convertId(Object entityId, MetaClass metaClass) {
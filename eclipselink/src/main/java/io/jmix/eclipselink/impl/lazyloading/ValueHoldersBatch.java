@@ -0,0 +1,71 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.eclipselink.impl.lazyloading;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Group of value holders of the same property created for entities returned by one load. When the first holder
+ * of the group is accessed, the values of all not yet loaded holders are loaded together.
+ * <p>
+ * The group is not serialized, so deserialized holders load their values one by one. After loading, the group
+ * releases its holders and the holders release the group.
+ */
+public class ValueHoldersBatch {
+
+    protected final List<AbstractValueHolder> holders = new ArrayList<>();
+    protected boolean loaded;
+
+    public void add(AbstractValueHolder holder) {
+        holders.add(holder);
+        holder.setBatch(this);
+    }
+
+    public int size() {
+        return holders.size();
+    }
+
+    /**
+     * Loads values of all holders of the group that are not instantiated yet. Does nothing if the group has
+     * already been loaded.
+     */
+    public synchronized void load(AbstractValueHolder trigger) {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+
+        List<AbstractValueHolder> pending = new ArrayList<>(holders.size());
+        for (AbstractValueHolder holder : holders) {
+            if (holder == trigger || !holder.isInstantiated()) {
+                pending.add(holder);
+            }
+        }
+        try {
+            if (pending.size() > 1) {
+                trigger.loadValues(pending);
+            }
+        } finally {
+            // release the links between sibling holders, so they do not keep each other's owners in memory
+            for (AbstractValueHolder holder : holders) {
+                holder.setBatch(null);
+            }
+            holders.clear();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.eclipselink.impl.support;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+@ManagedResource(description = "Cache coordination statistics", objectName = "jmix.eclipselink:type=CacheCoordination")
+@Component("eclipselink_CacheCoordinationManagementFacade")
+public class CacheCoordinationManagementFacade {
+
+    @Autowired
+    private CacheCoordinationPublisher publisher;
+
+    @ManagedAttribute(description = "Whether messages are sent by a separate thread")
+    public boolean isAsync() {
+        return publisher.isAsync();
+    }
+
+    @ManagedAttribute(description = "Current number of messages waiting to be sent")
+    public int getQueueSize() {
+        return publisher.getQueueSize();
+    }
+
+    @ManagedAttribute(description = "Number of messages sent")
+    public long getSentCount() {
+        return publisher.getSentCount();
+    }
+
+    @ManagedAttribute(description = "Number of messages sent by committing threads because the queue was full")
+    public long getOverflowCount() {
+        return publisher.getOverflowCount();
+    }
+
+    @ManagedAttribute(description = "Number of messages that failed to be sent")
+    public long getFailedCount() {
+        return publisher.getFailedCount();
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.eclipselink.impl.support;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.jmix.eclipselink.EclipselinkProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends cache coordination messages to other cluster nodes outside of the committing thread.
+ * <p>
+ * Messages are put into a bounded queue and sent by a dedicated thread. The queue and the thread are created
+ * on the first published message. If the queue is full, the committing
+ * thread waits up to {@code jmix.eclipselink.cacheCoordinationQueueTimeout} milliseconds and then sends
+ * the message itself, so messages are not lost when the channel is slower than commits.
+ * If {@code jmix.eclipselink.cacheCoordinationAsync} is false, messages are always sent synchronously.
+ * <p>
+ * On shutdown the publisher stops accepting messages into the queue, lets the sender thread send the queued ones
+ * and waits for it to finish. Messages published after that are sent synchronously.
+ */
+@Component("eclipselink_CacheCoordinationPublisher")
+public class CacheCoordinationPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheCoordinationPublisher.class);
+
+    protected static final long POLL_TIMEOUT_MS = 100;
+
+    protected static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    @Autowired
+    protected EclipselinkProperties properties;
+
+    protected BlockingQueue<PendingMessage> queue;
+
+    protected Thread senderThread;
+
+    protected volatile boolean running;
+
+    protected boolean stopped;
+
+    protected final Object lock = new Object();
+
+    protected final AtomicLong sentCount = new AtomicLong();
+    protected final AtomicLong overflowCount = new AtomicLong();
+    protected final AtomicLong failedCount = new AtomicLong();
+
+    public boolean isAsync() {
+        return properties.isCacheCoordinationAsync();
+    }
+
+    /**
+     * Creates the queue and starts the sender thread on the first published message, so applications without
+     * cache coordination do not have them.
+     *
+     * @return false if the publisher is already shut down
+     */
+    protected boolean startIfNeeded() {
+        if (running) {
+            return true;
+        }
+        synchronized (lock) {
+            if (stopped) {
+                return false;
+            }
+            if (!running) {
+                queue = new ArrayBlockingQueue<>(properties.getCacheCoordinationQueueCapacity());
+                senderThread = new ThreadFactoryBuilder()
+                        .setNameFormat("jmix-cache-coordination-publisher")
+                        .setDaemon(true)
+                        .build()
+                        .newThread(this::sendQueued);
+                running = true;
+                senderThread.start();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Sends the message to the channel. Returns after the message is queued if the publisher is asynchronous.
+     */
+    public void publish(MessageChannel channel, Message<?> message) {
+        if (!properties.isCacheCoordinationAsync() || !startIfNeeded()) {
+            send(new PendingMessage(channel, message));
+            return;
+        }
+        PendingMessage pendingMessage = new PendingMessage(channel, message);
+        boolean queued;
+        try {
+            queued = queue.offer(pendingMessage, properties.getCacheCoordinationQueueTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            overflowCount.incrementAndGet();
+            log.debug("Cache coordination queue is full, sending the message synchronously");
+            send(pendingMessage);
+        } else if (!running && queue.remove(pendingMessage)) {
+            // the publisher was shut down concurrently and the message can be left in the queue after the sender
+            // thread has finished
+            send(pendingMessage);
+        }
+    }
+
+    /**
+     * @return number of messages waiting to be sent
+     */
+    public int getQueueSize() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * @return number of messages sent successfully
+     */
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * @return number of messages sent by the committing thread because the queue was full
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    /**
+     * @return number of messages lost because the channel failed to send them
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    protected void sendQueued() {
+        while (running || !queue.isEmpty()) {
+            PendingMessage pendingMessage;
+            try {
+                pendingMessage = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (pendingMessage != null) {
+                send(pendingMessage);
+            }
+        }
+    }
+
+    protected void send(PendingMessage pendingMessage) {
+        try {
+            pendingMessage.channel.send(pendingMessage.message);
+            sentCount.incrementAndGet();
+        } catch (RuntimeException e) {
+            failedCount.incrementAndGet();
+            log.error("Unable to send cache coordination message", e);
+        }
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        Thread thread;
+        synchronized (lock) {
+            stopped = true;
+            running = false;
+            thread = senderThread;
+        }
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("Cache coordination messages were not sent in {} ms, sending the rest synchronously",
+                    SHUTDOWN_TIMEOUT_MS);
+        }
+        List<PendingMessage> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(this::send);
+    }
+
+    protected static class PendingMessage {
+        protected final MessageChannel channel;
+        protected final Message<?> message;
+
+        protected PendingMessage(MessageChannel channel, Message<?> message) {
+            this.channel = channel;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.eclipselink.impl.support;
+
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Encodes {@link CacheInvalidationMessage}s into a compact binary format without Java serialization.
+ * <p>
+ * Format:
+ * <pre>
+ * magic: 2 bytes 'J' 'I'
+ * version: byte
+ * senderId: UTF string
+ * typeCount: int
+ * for each type:
+ *     className: UTF string
+ *     flags: byte, 1 if instances of the type were created or deleted
+ *     idKind: byte (none, UUID, long, int or string)
+ *     idCount: int
+ *     ids: two longs per UUID, long, int or UTF string per id
+ * </pre>
+ * Only messages with ids of the supported kinds can be encoded. Messages with other ids, e.g. composite keys,
+ * should be sent in the serialized form.
+ */
+@Component("eclipselink_CacheInvalidationCodec")
+public class CacheInvalidationCodec {
+
+    protected static final byte MAGIC_0 = 'J';
+    protected static final byte MAGIC_1 = 'I';
+    protected static final byte VERSION = 1;
+
+    protected static final byte TYPE_CHANGE_FLAG = 1;
+
+    protected static final byte NO_ID = 0;
+    protected static final byte UUID_ID = 1;
+    protected static final byte LONG_ID = 2;
+    protected static final byte INT_ID = 3;
+    protected static final byte STRING_ID = 4;
+
+    /**
+     * @return encoded message or null if the message contains ids that cannot be encoded
+     */
+    @Nullable
+    public byte[] encode(CacheInvalidationMessage message) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC_0);
+            out.writeByte(MAGIC_1);
+            out.writeByte(VERSION);
+            out.writeUTF(message.getSenderId());
+            Set<String> classNames = new LinkedHashSet<>(message.getIds().keySet());
+            classNames.addAll(message.getTypeChanges());
+            out.writeInt(classNames.size());
+            for (String className : classNames) {
+                Set<Object> ids = message.getIds().getOrDefault(className, Collections.emptySet());
+                byte idKind = getIdKind(ids);
+                if (idKind == NO_ID && !ids.isEmpty()) {
+                    return null;
+                }
+                out.writeUTF(className);
+                out.writeByte(message.getTypeChanges().contains(className) ? TYPE_CHANGE_FLAG : 0);
+                out.writeByte(idKind);
+                out.writeInt(ids.size());
+                for (Object id : ids) {
+                    writeId(out, idKind, id);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to encode " + message, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return whether the bytes were produced by {@link #encode(CacheInvalidationMessage)}
+     */
+    public boolean isEncoded(byte[] bytes) {
+        return bytes.length > 2 && bytes[0] == MAGIC_0 && bytes[1] == MAGIC_1;
+    }
+
+    public CacheInvalidationMessage decode(byte[] bytes) {
+        if (!isEncoded(bytes)) {
+            throw new IllegalArgumentException("Not an encoded cache invalidation message");
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 2, bytes.length - 2))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported version of cache invalidation message: " + version);
+            }
+            CacheInvalidationMessage message = new CacheInvalidationMessage(in.readUTF());
+            int typeCount = in.readInt();
+            for (int i = 0; i < typeCount; i++) {
+                String className = in.readUTF();
+                byte flags = in.readByte();
+                if ((flags & TYPE_CHANGE_FLAG) != 0) {
+                    message.addTypeChange(className);
+                }
+                byte idKind = in.readByte();
+                int idCount = in.readInt();
+                for (int j = 0; j < idCount; j++) {
+                    message.addId(className, readId(in, idKind));
+                }
+            }
+            return message;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to decode cache invalidation message", e);
+        }
+    }
+
+    /**
+     * @return kind of all the given ids or {@link #NO_ID} if there are no ids or they are of different or
+     * unsupported types
+     */
+    protected byte getIdKind(Set<Object> ids) {
+        byte result = NO_ID;
+        for (Object id : ids) {
+            byte kind;
+            if (id instanceof UUID) {
+                kind = UUID_ID;
+            } else if (id instanceof Long) {
+                kind = LONG_ID;
+            } else if (id instanceof Integer) {
+                kind = INT_ID;
+            } else if (id instanceof String) {
+                kind = STRING_ID;
+            } else {
+                return NO_ID;
+            }
+            if (result != NO_ID && result != kind) {
+                return NO_ID;
+            }
+            result = kind;
+        }
+        return result;
+    }
+
+    protected void writeId(DataOutputStream out, byte idKind, Object id) throws IOException {
+        switch (idKind) {
+            case UUID_ID:
+                out.writeLong(((UUID) id).getMostSignificantBits());
+                out.writeLong(((UUID) id).getLeastSignificantBits());
+                break;
+            case LONG_ID:
+                out.writeLong((Long) id);
+                break;
+            case INT_ID:
+                out.writeInt((Integer) id);
+                break;
+            default:
+                out.writeUTF((String) id);
+        }
+    }
+
+    protected Object readId(DataInputStream in, byte idKind) throws IOException {
+        switch (idKind) {
+            case UUID_ID:
+                return new UUID(in.readLong(), in.readLong());
+            case LONG_ID:
+                return in.readLong();
+            case INT_ID:
+                return in.readInt();
+            case STRING_ID:
+                return in.readUTF();
+            default:
+                throw new IllegalArgumentException("Unknown id kind: " + idKind);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.jmix.eclipselink.impl.support;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache coordination message that contains identifiers of changed entity instances grouped by entity class name.
+ * Replaces serialized EclipseLink change sets: receivers only invalidate the instances, so they do not need
+ * the changes themselves.
+ * <p>
+ * Invalidations of several committed units of work can be merged into one message, see
+ * {@link JmixEclipseLinkRemoteConnection}.
+ */
+public class CacheInvalidationMessage implements Serializable {
+
+    private static final long serialVersionUID = -5316480264183622045L;
+
+    protected final String senderId;
+
+    protected final Map<String, Set<Object>> ids = new HashMap<>();
+
+    protected final Set<String> typeChanges = new HashSet<>();
+
+    public CacheInvalidationMessage(String senderId) {
+        this.senderId = senderId;
+    }
+
+    /**
+     * @return identifier of the connection that has sent the message
+     */
+    public String getSenderId() {
+        return senderId;
+    }
+
+    /**
+     * @return identifiers of changed instances by entity class name
+     */
+    public Map<String, Set<Object>> getIds() {
+        return ids;
+    }
+
+    public void addId(String className, Object id) {
+        ids.computeIfAbsent(className, name -> new HashSet<>()).add(id);
+    }
+
+    /**
+     * @return names of entity classes whose instances were created or deleted, so all cached queries of these
+     * entities should be discarded
+     */
+    public Set<String> getTypeChanges() {
+        return typeChanges;
+    }
+
+    public void addTypeChange(String className) {
+        typeChanges.add(className);
+    }
+
+    /**
+     * Adds identifiers of the given message to this one.
+     */
+    public void merge(CacheInvalidationMessage message) {
+        for (Map.Entry<String, Set<Object>> entry : message.ids.entrySet()) {
+            ids.computeIfAbsent(entry.getKey(), name -> new HashSet<>()).addAll(entry.getValue());
+        }
+        typeChanges.addAll(message.typeChanges);
+    }
+
+    public boolean isEmpty() {
+        return ids.isEmpty() && typeChanges.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidationMessage{senderId=" + senderId + ", classes=" + ids.keySet()
+                + ", typeChanges=" + typeChanges + "}";
+    }
+}
@@ -16,16 +16,20 @@
 
 package io.jmix.eclipselink.impl.support;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.jmix.core.ExtendedEntities;
 import io.jmix.core.Metadata;
 import io.jmix.core.common.util.ReflectionHelper;
 import io.jmix.core.impl.StandardSerialization;
 import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.eclipselink.EclipselinkProperties;
 import io.jmix.eclipselink.impl.entitycache.QueryCacheManager;
 import org.eclipse.persistence.internal.helper.Helper;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
 import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
 import org.eclipse.persistence.internal.sessions.coordination.broadcast.BroadcastRemoteConnection;
 import org.eclipse.persistence.sessions.coordination.MergeChangeSetCommand;
+import org.eclipse.persistence.sessions.Session;
 import org.eclipse.persistence.sessions.coordination.RemoteCommandManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
@@ -34,10 +38,28 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.Nullable;
 import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Sends and receives EclipseLink cache coordination commands through {@link EclipseLinkChannelSupplier}.
+ * <p>
+ * Merged change sets are sent as {@link CacheInvalidationMessage}s containing only ids of changed instances,
+ * encoded by {@link CacheInvalidationCodec}.
+ * If {@code jmix.eclipselink.cacheCoordinationBatchWindow} is greater than 0, invalidations of units of work
+ * committed during the window are merged into one message, which is sent when the window ends or when it
+ * collects {@code jmix.eclipselink.cacheCoordinationBatchSize} commands. Other commands are sent as is.
+ * Messages are sent by {@link CacheCoordinationPublisher}.
+ */
 @Component("eclipselink_JmixEclipseLinkRemoteConnection")
 @Scope(BeanDefinition.SCOPE_PROTOTYPE)
 public class JmixEclipseLinkRemoteConnection extends BroadcastRemoteConnection {
@@ -52,6 +74,20 @@ public class JmixEclipseLinkRemoteConnection extends BroadcastRemoteConnection {
     protected EclipseLinkChannelSupplier channelSupplier;
     @Autowired
     protected StandardSerialization serialization;
+    @Autowired
+    protected EclipselinkProperties properties;
+    @Autowired
+    protected CacheInvalidationCodec invalidationCodec;
+    @Autowired
+    protected CacheCoordinationPublisher publisher;
+
+    protected final String connectionId = UUID.randomUUID().toString();
+
+    protected final Object pendingLock = new Object();
+    protected CacheInvalidationMessage pendingMessage;
+    protected int pendingCommands;
+
+    protected ScheduledExecutorService flushExecutor;
 
     public JmixEclipseLinkRemoteConnection(RemoteCommandManager rcm) {
         super(rcm);
@@ -59,6 +95,12 @@ public class JmixEclipseLinkRemoteConnection extends BroadcastRemoteConnection {
 
     @PostConstruct
     protected void init() {
+        if (channelSupplier != null && properties.getCacheCoordinationBatchWindow() > 0) {
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("jmix-cache-coordination-%d")
+                    .setDaemon(true)
+                    .build());
+        }
         if (channelSupplier != null) {
             rcm.logDebug("creating_broadcast_connection", getInfo());
             try {
@@ -88,8 +130,12 @@ public class JmixEclipseLinkRemoteConnection extends BroadcastRemoteConnection {
         }
 
         if (channelSupplier != null) {
-            Message<?> message = MessageBuilder.withPayload(serialization.serialize(command)).build();
-            channelSupplier.get().send(message);
+            CacheInvalidationMessage invalidationMessage = createInvalidationMessage(command);
+            if (invalidationMessage == null) {
+                send(command);
+            } else if (!invalidationMessage.isEmpty()) {
+                addToPending(invalidationMessage);
+            }
         }
 
         if (debugInfo != null) {
@@ -104,7 +150,18 @@ public class JmixEclipseLinkRemoteConnection extends BroadcastRemoteConnection {
             logDebugOnReceiveMessage(null);
         }
 
-        Object command = serialization.deserialize((byte[]) message.getPayload());
+        byte[] payload = (byte[]) message.getPayload();
+        Object command = invalidationCodec.isEncoded(payload)
+                ? invalidationCodec.decode(payload)
+                : serialization.deserialize(payload);
+        if (command instanceof CacheInvalidationMessage) {
+            CacheInvalidationMessage invalidationMessage = (CacheInvalidationMessage) command;
+            // the changes are already merged into the cache of this node
+            if (!connectionId.equals(invalidationMessage.getSenderId())) {
+                invalidate(invalidationMessage);
+            }
+            return;
+        }
         if (queryCacheManager.isEnabled()) {
             invalidateQueryCache(command);
         }
@@ -118,6 +175,10 @@ public class JmixEclipseLinkRemoteConnection extends BroadcastRemoteConnection {
 
     @Override
     protected void closeInternal() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdownNow();
+            flushPending();
+        }
     }
 
     @Override
@@ -131,20 +192,161 @@ public class JmixEclipseLinkRemoteConnection extends BroadcastRemoteConnection {
     }
 
     protected void invalidateQueryCache(Object command) {
-        if (command instanceof MergeChangeSetCommand) {
-            MergeChangeSetCommand changeSetCommand = (MergeChangeSetCommand) command;
-            UnitOfWorkChangeSet changeSet = changeSetCommand.getChangeSet(null);
-            if (changeSet != null && changeSet.getAllChangeSets() != null) {
-                Set<String> typeNames = new HashSet<>();
-                changeSet.getAllChangeSets().values().stream().filter(obj -> obj.getClassName() != null).forEach(obj -> {
-                    MetaClass metaClass = metadata.findClass(ReflectionHelper.getClass(obj.getClassName()));
-                    if (metaClass != null) {
-                        metaClass = extendedEntities.getOriginalOrThisMetaClass(metaClass);
-                        typeNames.add(metaClass.getName());
-                    }
-                });
-                queryCacheManager.invalidate(typeNames);
+        CacheInvalidationMessage changes = createInvalidationMessage(command);
+        if (changes != null) {
+            invalidateQueryCache(changes);
+        }
+    }
+
+    /**
+     * Discards cached queries of entities created or deleted according to the message by type, and of updated
+     * entities by their ids.
+     */
+    protected void invalidateQueryCache(CacheInvalidationMessage message) {
+        Set<String> typeNames = getTypeNames(message.getTypeChanges());
+        Map<String, Set<Object>> updatedIds = new HashMap<>();
+        for (Map.Entry<String, Set<Object>> entry : message.getIds().entrySet()) {
+            if (!message.getTypeChanges().contains(entry.getKey())) {
+                String typeName = getTypeName(entry.getKey());
+                if (typeName != null) {
+                    updatedIds.computeIfAbsent(typeName, name -> new HashSet<>()).addAll(entry.getValue());
+                }
             }
         }
+        queryCacheManager.invalidate(typeNames, updatedIds);
+    }
+
+    protected Set<String> getTypeNames(Collection<String> classNames) {
+        Set<String> typeNames = new HashSet<>();
+        for (String className : classNames) {
+            String typeName = getTypeName(className);
+            if (typeName != null) {
+                typeNames.add(typeName);
+            }
+        }
+        return typeNames;
+    }
+
+    @Nullable
+    protected String getTypeName(String className) {
+        MetaClass metaClass = metadata.findClass(ReflectionHelper.getClass(className));
+        if (metaClass == null) {
+            return null;
+        }
+        return extendedEntities.getOriginalOrThisMetaClass(metaClass).getName();
+    }
+
+    /**
+     * @return message with ids of instances changed or deleted by the merge command or null if the command
+     * is not a merge
+     */
+    @Nullable
+    protected CacheInvalidationMessage createInvalidationMessage(Object command) {
+        if (!(command instanceof MergeChangeSetCommand)) {
+            return null;
+        }
+        UnitOfWorkChangeSet changeSet = ((MergeChangeSetCommand) command).getChangeSet(null);
+        if (changeSet == null) {
+            return null;
+        }
+        CacheInvalidationMessage message = new CacheInvalidationMessage(connectionId);
+        if (changeSet.getAllChangeSets() != null) {
+            for (ObjectChangeSet objectChangeSet : changeSet.getAllChangeSets().values()) {
+                addChange(message, objectChangeSet, objectChangeSet.isNew());
+            }
+        }
+        addDeletedObjects(message, changeSet);
+        return message;
+    }
+
+    /**
+     * Adds instances deleted by the change set. They are not included in {@link UnitOfWorkChangeSet#getAllChangeSets()},
+     * and since merge commands are not processed by receivers, they must be invalidated by the message
+     * in the shared cache and by type in the query cache.
+     */
+    protected void addDeletedObjects(CacheInvalidationMessage message, UnitOfWorkChangeSet changeSet) {
+        if (changeSet.getDeletedObjects() == null) {
+            return;
+        }
+        for (ObjectChangeSet objectChangeSet : changeSet.getDeletedObjects().keySet()) {
+            addChange(message, objectChangeSet, true);
+        }
+    }
+
+    protected void addChange(CacheInvalidationMessage message, ObjectChangeSet objectChangeSet, boolean typeChange) {
+        String className = objectChangeSet.getClassName();
+        if (className == null) {
+            return;
+        }
+        if (objectChangeSet.getId() != null) {
+            message.addId(className, objectChangeSet.getId());
+        }
+        if (typeChange || objectChangeSet.getId() == null) {
+            message.addTypeChange(className);
+        }
+    }
+
+    protected void addToPending(CacheInvalidationMessage message) {
+        CacheInvalidationMessage messageToSend = null;
+        synchronized (pendingLock) {
+            if (pendingMessage == null) {
+                pendingMessage = message;
+                if (flushExecutor != null) {
+                    flushExecutor.schedule(this::flushPending,
+                            properties.getCacheCoordinationBatchWindow(), TimeUnit.MILLISECONDS);
+                }
+            } else {
+                pendingMessage.merge(message);
+            }
+            pendingCommands++;
+            if (flushExecutor == null || pendingCommands >= properties.getCacheCoordinationBatchSize()) {
+                messageToSend = pendingMessage;
+                pendingMessage = null;
+                pendingCommands = 0;
+            }
+        }
+        if (messageToSend != null) {
+            send(messageToSend);
+        }
+    }
+
+    protected void flushPending() {
+        CacheInvalidationMessage messageToSend;
+        synchronized (pendingLock) {
+            messageToSend = pendingMessage;
+            pendingMessage = null;
+            pendingCommands = 0;
+        }
+        if (messageToSend != null) {
+            send(messageToSend);
+        }
+    }
+
+    protected void send(Object payload) {
+        byte[] bytes = null;
+        if (payload instanceof CacheInvalidationMessage) {
+            bytes = invalidationCodec.encode((CacheInvalidationMessage) payload);
+        }
+        if (bytes == null) {
+            bytes = serialization.serialize(payload);
+        }
+        Message<?> message = MessageBuilder.withPayload(bytes).build();
+        publisher.publish(channelSupplier.get(), message);
+    }
+
+    /**
+     * Invalidates instances listed in the message in the shared cache and cached queries that depend on them.
+     */
+    protected void invalidate(CacheInvalidationMessage message) {
+        Session session = (Session) rcm.getCommandProcessor();
+        for (Map.Entry<String, Set<Object>> entry : message.getIds().entrySet()) {
+            Class<?> javaClass = ReflectionHelper.getClass(entry.getKey());
+            for (Object id : entry.getValue()) {
+                session.getIdentityMapAccessor().invalidateObject(id, javaClass);
+            }
+        }
+        if (queryCacheManager.isEnabled()) {
+            invalidateQueryCache(message);
+        }
     }
 }
@@ -20,7 +20,9 @@ import com.google.common.base.Strings;
 import io.jmix.core.Entity;
 import io.jmix.core.Metadata;
 import io.jmix.core.metamodel.model.MetaClass;
+import io.jmix.eclipselink.EclipselinkProperties;
 import io.jmix.eclipselink.impl.DescriptorEventManagerWrapper;
+import io.jmix.eclipselink.impl.QueryPreparationManager;
 import io.jmix.eclipselink.persistence.*;
 import org.apache.commons.lang3.BooleanUtils;
 import org.eclipse.persistence.annotations.CacheCoordinationType;
@@ -28,6 +30,7 @@ import org.eclipse.persistence.config.CacheIsolationType;
 import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.descriptors.InheritancePolicy;
 import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.sessions.DatabaseLogin;
 import org.eclipse.persistence.sessions.Session;
 import org.eclipse.persistence.sessions.SessionEvent;
 import org.eclipse.persistence.sessions.SessionEventAdapter;
@@ -50,6 +53,10 @@ public class JmixEclipseLinkSessionEventListener extends SessionEventAdapter {
     private Metadata metadata;
     @Autowired
     private ListableBeanFactory beanFactory;
+    @Autowired
+    private EclipselinkProperties properties;
+    @Autowired
+    private QueryPreparationManager queryPreparationManager;
 
     private static final Logger log = LoggerFactory.getLogger(JmixEclipseLinkSessionEventListener.class);
 
@@ -58,6 +65,8 @@ public class JmixEclipseLinkSessionEventListener extends SessionEventAdapter {
         Session session = event.getSession();
 
         setPrintInnerJoinOnClause(session);
+        setBatchWriting(session);
+        queryPreparationManager.setupSession(session);
         boolean hasMultipleTableConstraintDependency = hasMultipleTableConstraintDependency();
 
         //noinspection rawtypes
@@ -115,6 +124,17 @@ public class JmixEclipseLinkSessionEventListener extends SessionEventAdapter {
         session.getPlatform().setPrintInnerJoinInWhereClause(!useInnerJoinOnClause);
     }
 
+    protected void setBatchWriting(Session session) {
+        if (properties.isJdbcBatchWriting()) {
+            DatabaseLogin login = session.getLogin();
+            // parameter binding is left as configured: with binding (the EclipseLink default) statements with
+            // the same SQL share one prepared statement batch, without it they are batched as plain SQL
+            login.setUsesJDBCBatchWriting(true);
+            login.setUsesBatchWriting(true);
+            login.setMaxBatchWritingSize(properties.getJdbcBatchWritingSize());
+        }
+    }
+
     protected void setAdditionalCriteria(ClassDescriptor descriptor) {
         String criteria = beanFactory.getBeansOfType(AdditionalCriteriaProvider.class)
                 .values().stream()
@@ -0,0 +1,363 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cache_coordination
+
+import io.jmix.core.impl.StandardSerialization
+import io.jmix.eclipselink.EclipselinkProperties
+import io.jmix.eclipselink.impl.entitycache.QueryCache
+import io.jmix.eclipselink.impl.entitycache.QueryKey
+import io.jmix.eclipselink.impl.entitycache.QueryResult
+import io.jmix.eclipselink.impl.support.CacheCoordinationPublisher
+import io.jmix.eclipselink.impl.support.CacheInvalidationCodec
+import io.jmix.eclipselink.impl.support.CacheInvalidationMessage
+import io.jmix.eclipselink.impl.support.EclipseLinkChannelSupplier
+import io.jmix.eclipselink.impl.support.JmixEclipseLinkRemoteConnection
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory
+import org.eclipse.persistence.sessions.coordination.MergeChangeSetCommand
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.context.ApplicationContext
+import org.springframework.messaging.Message
+import org.springframework.messaging.MessageChannel
+import org.springframework.messaging.SubscribableChannel
+import org.springframework.messaging.support.MessageBuilder
+import spock.util.concurrent.PollingConditions
+import test_support.DataSpec
+import test_support.entity.sales.Product
+
+import javax.persistence.EntityManagerFactory
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+
+class CacheCoordinationTest extends DataSpec {
+
+    @Autowired
+    ApplicationContext applicationContext
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory
+
+    @Autowired
+    StandardSerialization serialization
+
+    @Autowired
+    CacheInvalidationCodec codec
+
+    @Autowired
+    CacheCoordinationPublisher publisher
+
+    @Autowired
+    EclipselinkProperties eclipselinkProperties
+
+    @Autowired
+    QueryCache queryCache
+
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    JmixEclipseLinkRemoteConnection connection
+
+    List<Message<?>> sentMessages = Collections.synchronizedList([])
+
+    void setup() {
+        def rcm = entityManagerFactory.unwrap(JpaEntityManagerFactory).serverSession.commandManager
+        connection = applicationContext.getBean(JmixEclipseLinkRemoteConnection, rcm)
+
+        def channel = [
+                send       : { Object[] args -> sentMessages << (Message<?>) args[0]; true },
+                subscribe  : { handler -> true },
+                unsubscribe: { handler -> true }
+        ] as SubscribableChannel
+        connection.channelSupplier = { channel } as EclipseLinkChannelSupplier
+    }
+
+    void cleanup() {
+        connection.flushExecutor?.shutdownNow()
+        queryCache.invalidateAll()
+    }
+
+    def "invalidations are merged into one message"() {
+        connection.flushExecutor = Executors.newSingleThreadScheduledExecutor()
+
+        when:
+
+        connection.addToPending(message('test.Product', 1L))
+        connection.addToPending(message('test.Product', 2L))
+        connection.addToPending(message('test.Customer', 3L))
+        connection.flushPending()
+
+        then:
+
+        conditions.eventually {
+            assert sentMessages.size() == 1
+        }
+
+        when:
+
+        def sent = codec.decode((byte[]) sentMessages[0].payload)
+
+        then:
+
+        sent.ids == ['test.Product': [1L, 2L] as Set, 'test.Customer': [3L] as Set]
+    }
+
+    def "invalidations are sent immediately without batch window"() {
+
+        when:
+
+        connection.addToPending(message('test.Product', 1L))
+        connection.addToPending(message('test.Product', 2L))
+
+        then:
+
+        conditions.eventually {
+            assert sentMessages.size() == 2
+        }
+    }
+
+    def "instance deleted on one node is invalidated on another node"() {
+        def session = entityManagerFactory.unwrap(JpaEntityManagerFactory).serverSession
+        def id = UUID.randomUUID()
+
+        def changeSet = new UnitOfWorkChangeSet(session)
+        def objectChangeSet = new ObjectChangeSet(id, session.getDescriptor(Product), null, changeSet, false)
+        changeSet.deletedObjects.put(objectChangeSet, objectChangeSet)
+        def command = new MergeChangeSetCommand()
+        command.changeSet = changeSet
+
+        def otherConnection = applicationContext.getBean(JmixEclipseLinkRemoteConnection, session.commandManager)
+        def queryKey = new QueryKey('select e from sales_Product e where e.id = :id', 0, 0, false, false, [id: id], null)
+
+        when: "the deletion is sent"
+
+        connection.executeCommandInternal(command)
+
+        then:
+
+        conditions.eventually {
+            assert sentMessages.size() == 1
+        }
+
+        when:
+
+        def sent = codec.decode((byte[]) sentMessages[0].payload)
+
+        then:
+
+        sent.ids == [(Product.name): [id] as Set]
+        sent.typeChanges == [Product.name] as Set
+
+        when: "the message is received by another node caching a query with the deleted instance"
+
+        queryCache.put(queryKey, new QueryResult([id], 'sales_Product', ['sales_Product'] as Set, null, true))
+        otherConnection.onMessage(sentMessages[0])
+
+        then:
+
+        queryCache.get(queryKey) == null
+    }
+
+    def "merged message"() {
+        def message1 = message('test.Product', 1L)
+        message1.addId('test.Customer', 2L)
+        def message2 = message('test.Product', 3L)
+        message2.addTypeChange('test.Order')
+
+        when:
+
+        message1.merge(message2)
+
+        then:
+
+        message1.ids == ['test.Product': [1L, 3L] as Set, 'test.Customer': [2L] as Set]
+        message1.typeChanges == ['test.Order'] as Set
+        !message1.isEmpty()
+        new CacheInvalidationMessage('sender').isEmpty()
+    }
+
+    def "encoded message"() {
+        def uuid1 = UUID.randomUUID()
+        def uuid2 = UUID.randomUUID()
+
+        def message = new CacheInvalidationMessage('sender')
+        message.addId('test.Product', uuid1)
+        message.addId('test.Product', uuid2)
+        message.addId('test.Customer', 10L)
+        message.addId('test.Order', 20)
+        message.addId('test.Code', 'c1')
+        message.addTypeChange('test.Customer')
+        message.addTypeChange('test.Deleted')
+
+        when:
+
+        def bytes = codec.encode(message)
+        def decoded = codec.decode(bytes)
+
+        then:
+
+        codec.isEncoded(bytes)
+        !codec.isEncoded(serialization.serialize(message))
+        decoded.senderId == 'sender'
+        decoded.ids == message.ids
+        decoded.typeChanges == ['test.Customer', 'test.Deleted'] as Set
+        bytes.length < serialization.serialize(message).length
+    }
+
+    def "message with unsupported ids is serialized"() {
+        def message = new CacheInvalidationMessage(connection.connectionId)
+        message.addId('test.CompositeKeyEntity', [1, 2])
+
+        when:
+
+        connection.send(message)
+
+        then:
+
+        conditions.eventually {
+            assert sentMessages.size() == 1
+        }
+
+        when:
+
+        def payload = (byte[]) sentMessages[0].payload
+
+        then:
+
+        codec.encode(message) == null
+        !codec.isEncoded(payload)
+        serialization.deserialize(payload).ids == message.ids
+    }
+
+    def "messages are sent by a separate thread"() {
+        def latch = new CountDownLatch(1)
+        def senderThreads = Collections.synchronizedSet([] as Set)
+        def channel = [
+                send: { Object[] args -> latch.await(); senderThreads << Thread.currentThread(); true }
+        ] as MessageChannel
+        def sentBefore = publisher.sentCount
+
+        when:
+
+        publisher.publish(channel, MessageBuilder.withPayload(new byte[1]).build())
+        publisher.publish(channel, MessageBuilder.withPayload(new byte[1]).build())
+
+        then: "publishing does not wait for the channel"
+
+        publisher.async
+        publisher.sentCount == sentBefore
+
+        when:
+
+        latch.countDown()
+
+        then:
+
+        conditions.eventually {
+            assert publisher.sentCount == sentBefore + 2
+            assert publisher.queueSize == 0
+        }
+        !senderThreads.contains(Thread.currentThread())
+    }
+
+    def "sender thread is started on the first published message"() {
+        def lazyPublisher = new CacheCoordinationPublisher()
+        lazyPublisher.@properties = eclipselinkProperties
+        def channel = [send: { Object[] args -> true }] as MessageChannel
+
+        expect:
+
+        lazyPublisher.senderThread == null
+        lazyPublisher.queueSize == 0
+
+        when:
+
+        lazyPublisher.publish(channel, MessageBuilder.withPayload(new byte[1]).build())
+
+        then:
+
+        lazyPublisher.senderThread.alive
+        conditions.eventually {
+            assert lazyPublisher.sentCount == 1
+        }
+
+        cleanup:
+
+        lazyPublisher.shutdown()
+    }
+
+    def "shutdown of a publisher without messages does not start the sender thread"() {
+        def idlePublisher = new CacheCoordinationPublisher()
+        idlePublisher.@properties = eclipselinkProperties
+        def sent = []
+        def channel = [send: { Object[] args -> sent << Thread.currentThread(); true }] as MessageChannel
+
+        when:
+
+        idlePublisher.shutdown()
+        idlePublisher.publish(channel, MessageBuilder.withPayload(new byte[1]).build())
+
+        then: "messages published after shutdown are sent synchronously"
+
+        idlePublisher.senderThread == null
+        sent == [Thread.currentThread()]
+    }
+
+    def "queued messages are sent without interruption on shutdown"() {
+        def stoppedPublisher = new CacheCoordinationPublisher()
+        stoppedPublisher.@properties = eclipselinkProperties
+
+        def sent = Collections.synchronizedList([])
+        def interrupted = Collections.synchronizedList([])
+        def channel = [
+                send: { Object[] args ->
+                    Thread.sleep(20)
+                    interrupted << Thread.currentThread().isInterrupted()
+                    sent << args[0]
+                    true
+                }
+        ] as MessageChannel
+
+        when:
+
+        (1..5).each {
+            stoppedPublisher.publish(channel, MessageBuilder.withPayload(new byte[1]).build())
+        }
+        stoppedPublisher.shutdown()
+
+        then: "all queued messages are sent by the sender thread before it finishes"
+
+        sent.size() == 5
+        !interrupted.contains(true)
+        stoppedPublisher.queueSize == 0
+        !stoppedPublisher.senderThread.alive
+
+        when:
+
+        stoppedPublisher.publish(channel, MessageBuilder.withPayload(new byte[1]).build())
+
+        then: "messages published after shutdown are sent synchronously"
+
+        sent.size() == 6
+        stoppedPublisher.sentCount == 6
+    }
+
+    private CacheInvalidationMessage message(String className, Object id) {
+        def message = new CacheInvalidationMessage(connection.connectionId)
+        message.addId(className, id)
+        return message
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package data_manager
+
+import io.jmix.core.DataManager
+import io.jmix.core.EntityStates
+import io.jmix.core.Id
+import io.jmix.core.SaveContext
+import io.jmix.core.event.EntityChangedEvent
+import io.jmix.data.PersistenceHints
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.TestCustomerListener
+import test_support.TestSqlCounter
+import test_support.entity.sales.Customer
+import test_support.entity.sales.Product
+
+class DataManagerBulkDeleteTest extends DataSpec {
+
+    @Autowired
+    DataManager dm
+    @Autowired
+    EntityStates entityStates
+    @Autowired
+    TestSqlCounter sqlCounter
+    @Autowired
+    TestCustomerListener customerListener
+
+    void cleanup() {
+        customerListener.changedEventConsumer = null
+    }
+
+    def "bulk soft delete"() {
+        def products = (1..3).collect {
+            def product = dm.create(Product)
+            product.name = "bulk-$it"
+            dm.save(product)
+        }
+
+        when:
+
+        sqlCounter.start()
+        def deleted = dm.save(new SaveContext().removing(products).setHint(PersistenceHints.BULK_DELETE, true))
+        sqlCounter.stop()
+
+        then: "one update statement instead of an update per instance"
+
+        sqlCounter.count('update') == 1
+
+        products.every { !dm.load(Id.of(it)).optional().isPresent() }
+
+        products.every {
+            def product = dm.load(Id.of(it)).hint(PersistenceHints.SOFT_DELETION, false).one()
+            product.deleteTs != null && product.version == 2
+        }
+
+        and: "returned instances have the values of the deleted rows"
+
+        deleted.size() == 3
+        deleted.every { it.deleteTs != null && it.version == 2 }
+    }
+
+    def "bulk hard delete"() {
+        def products = (1..3).collect {
+            def product = dm.create(Product)
+            product.name = "bulk-$it"
+            dm.save(product)
+        }
+
+        when:
+
+        sqlCounter.start()
+        def deleted = dm.save(new SaveContext().removing(products)
+                .setHint(PersistenceHints.BULK_DELETE, true)
+                .setHint(PersistenceHints.SOFT_DELETION, false))
+        sqlCounter.stop()
+
+        then:
+
+        sqlCounter.count('delete') == 1
+        deleted.every { entityStates.isDeleted(it) }
+        products.every { !dm.load(Id.of(it)).hint(PersistenceHints.SOFT_DELETION, false).optional().isPresent() }
+    }
+
+    def "entities with listeners are deleted one by one"() {
+        def product = dm.save(dm.create(Product))
+        def customer = dm.save(dm.create(Customer))
+        List<EntityChangedEvent<Customer>> events = []
+        customerListener.changedEventConsumer = { events << it }
+
+        when:
+
+        sqlCounter.start()
+        dm.save(new SaveContext().removing(product, customer).setHint(PersistenceHints.BULK_DELETE, true))
+        sqlCounter.stop()
+
+        then: "product is deleted by the bulk statement, customer is loaded and deleted with listeners"
+
+        sqlCounter.statements.count { it.toLowerCase().startsWith('update sales_product') } == 1
+        events.size() == 1
+        events[0].type == EntityChangedEvent.Type.DELETED
+
+        !dm.load(Id.of(product)).optional().isPresent()
+        !dm.load(Id.of(customer)).optional().isPresent()
+        dm.load(Id.of(customer)).hint(PersistenceHints.SOFT_DELETION, false).one().deleteTs != null
+    }
+}
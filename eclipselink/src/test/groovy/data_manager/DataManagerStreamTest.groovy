@@ -0,0 +1,237 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package data_manager
+
+import io.jmix.core.DataManager
+import io.jmix.core.EntityStates
+import io.jmix.core.LoadContext
+import io.jmix.core.Metadata
+import io.jmix.core.Stores
+import io.jmix.core.accesscontext.InMemoryCrudEntityContext
+import io.jmix.core.constraint.InMemoryConstraint
+import io.jmix.data.PersistenceHints
+import io.jmix.eclipselink.impl.JpaDataStore
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.context.ApplicationContext
+import org.springframework.transaction.support.TransactionTemplate
+import test_support.DataSpec
+import test_support.entity.sales.Customer
+import test_support.entity.sales.Order
+import test_support.entity.sales.Product
+
+import javax.persistence.EntityManager
+import javax.persistence.PersistenceContext
+import java.util.stream.Collectors
+
+class DataManagerStreamTest extends DataSpec {
+
+    @Autowired
+    DataManager dm
+
+    @Autowired
+    Metadata metadata
+
+    @Autowired
+    EntityStates entityStates
+
+    @Autowired
+    ApplicationContext applicationContext
+
+    @Autowired
+    TransactionTemplate tx
+
+    @PersistenceContext
+    EntityManager entityManager
+
+    JpaDataStore dataStore
+
+    void setup() {
+        dataStore = applicationContext.getBean(JpaDataStore)
+        dataStore.setName(Stores.MAIN)
+    }
+
+    def "entities are loaded by stream in chunks"() {
+        (1..10).each {
+            def product = dm.create(Product)
+            product.name = "stream-${String.format('%02d', it)}"
+            dm.save(product)
+        }
+
+        def context = new LoadContext<Product>(metadata.getClass(Product))
+                .setQuery(new LoadContext.Query('select e from sales_Product e order by e.name'))
+
+        when:
+
+        List<Product> products
+        def stream = dataStore.loadStream(context, 3)
+        try {
+            products = stream.collect(Collectors.toList())
+        } finally {
+            stream.close()
+        }
+
+        then:
+
+        products.size() == 10
+        products.collect { it.name } == (1..10).collect { "stream-${String.format('%02d', it)}".toString() }
+        products.every { entityStates.isDetached(it) }
+    }
+
+    def "stream is closed before it is exhausted"() {
+        (1..5).each {
+            def product = dm.create(Product)
+            product.name = "stream-$it"
+            dm.save(product)
+        }
+
+        def context = new LoadContext<Product>(metadata.getClass(Product))
+                .setQuery(new LoadContext.Query('select e from sales_Product e'))
+
+        when:
+
+        def stream = dataStore.loadStream(context, 2)
+        def first = stream.findFirst()
+        stream.close()
+
+        then:
+
+        first.isPresent()
+        dm.load(Product).query('select e from sales_Product e').list().size() == 5
+    }
+
+    def "not loaded references of streamed entities are loaded lazily"() {
+        def customer = dm.create(Customer)
+        customer.name = 'stream-customer'
+        dm.save(customer)
+
+        (1..3).each {
+            def order = dm.create(Order)
+            order.number = "stream-$it"
+            order.customer = customer
+            dm.save(order)
+        }
+
+        def context = new LoadContext<Order>(metadata.getClass(Order))
+                .setQuery(new LoadContext.Query('select e from sales_Order e order by e.number'))
+
+        when:
+
+        List<Order> orders
+        def stream = dataStore.loadStream(context, 2)
+        try {
+            orders = stream.collect(Collectors.toList())
+        } finally {
+            stream.close()
+        }
+
+        then:
+
+        orders.size() == 3
+        orders.every { it.customer.name == 'stream-customer' }
+    }
+
+    def "soft deletion mode of joined transaction is restored after stream is closed"() {
+        def product = dm.create(Product)
+        product.name = 'stream-1'
+        dm.save(product)
+
+        def context = new LoadContext<Product>(metadata.getClass(Product))
+                .setQuery(new LoadContext.Query('select e from sales_Product e'))
+                .setHint(PersistenceHints.SOFT_DELETION, false)
+                .setJoinTransaction(true)
+
+        boolean sdBefore = false, sdInside = true, sdAfter = false
+        long count = 0
+
+        when:
+
+        tx.executeWithoutResult { status ->
+            sdBefore = PersistenceHints.isSoftDeletion(entityManager)
+
+            def stream = dataStore.loadStream(context, 2)
+            try {
+                sdInside = PersistenceHints.isSoftDeletion(entityManager)
+                count = stream.count()
+            } finally {
+                stream.close()
+            }
+
+            sdAfter = PersistenceHints.isSoftDeletion(entityManager)
+        }
+
+        then:
+
+        count == 1
+        sdBefore
+        !sdInside
+        sdAfter
+    }
+
+    def "abandoned stream is released when joined transaction completes"() {
+        (1..5).each {
+            def product = dm.create(Product)
+            product.name = "stream-$it"
+            dm.save(product)
+        }
+
+        def context = new LoadContext<Product>(metadata.getClass(Product))
+                .setQuery(new LoadContext.Query('select e from sales_Product e'))
+                .setJoinTransaction(true)
+
+        Iterator<Product> iterator = null
+
+        when:
+
+        tx.executeWithoutResult { status ->
+            iterator = dataStore.loadStream(context, 2).iterator()
+            iterator.next()
+        }
+
+        then:
+
+        !iterator.hasNext()
+        dm.load(Product).query('select e from sales_Product e').list().size() == 5
+    }
+
+    def "stream is rejected when in-memory read constraints are applied"() {
+        def constraint = new InMemoryConstraint<InMemoryCrudEntityContext>() {
+            @Override
+            Class<InMemoryCrudEntityContext> getContextType() {
+                return InMemoryCrudEntityContext
+            }
+
+            @Override
+            void applyTo(InMemoryCrudEntityContext context) {
+                if (context.entityClass.javaClass == Product) {
+                    context.addReadPredicate { false }
+                }
+            }
+        }
+
+        def context = new LoadContext<Product>(metadata.getClass(Product))
+                .setQuery(new LoadContext.Query('select e from sales_Product e'))
+                .setAccessConstraints([constraint])
+
+        when:
+
+        dataStore.loadStream(context, 2)
+
+        then:
+
+        thrown(UnsupportedOperationException)
+    }
+}
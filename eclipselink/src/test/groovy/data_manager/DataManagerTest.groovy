@@ -128,6 +128,30 @@ class DataManagerTest extends DataSpec {
         list == [entity1, entity2]
     }
 
+    def "load by collection of composite ids in the order of ids"() {
+
+        def id1 = new TestEntityKey(tenant: 1, entityId: 1)
+        def id2 = new TestEntityKey(tenant: 1, entityId: 2)
+        def id3 = new TestEntityKey(tenant: 2, entityId: 1)
+        def missingId = new TestEntityKey(tenant: 2, entityId: 2)
+
+        def entity1 = new TestCompositeKeyEntity(id: id1, name: 'e1')
+        def entity2 = new TestCompositeKeyEntity(id: id2, name: 'e2')
+        def entity3 = new TestCompositeKeyEntity(id: id3, name: 'e3')
+
+        dataManager.save(entity1, entity2, entity3)
+
+        when:
+
+        def list = dataManager.load(TestCompositeKeyEntity)
+                .ids([id3, missingId, id1, id2])
+                .list()
+
+        then:
+
+        list == [entity3, entity1, entity2]
+    }
+
     def "load by null id"() {
 
         when:
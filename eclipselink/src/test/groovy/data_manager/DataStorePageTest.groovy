@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package data_manager
+
+import io.jmix.core.DataManager
+import io.jmix.core.LoadContext
+import io.jmix.core.Metadata
+import io.jmix.core.Stores
+import io.jmix.eclipselink.impl.JpaDataStore
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.context.ApplicationContext
+import test_support.DataSpec
+import test_support.entity.sales.Product
+
+class DataStorePageTest extends DataSpec {
+
+    @Autowired
+    DataManager dm
+
+    @Autowired
+    Metadata metadata
+
+    @Autowired
+    ApplicationContext applicationContext
+
+    JpaDataStore dataStore
+
+    void setup() {
+        dataStore = applicationContext.getBean(JpaDataStore)
+        dataStore.setName(Stores.MAIN)
+
+        (1..5).each {
+            def product = dm.create(Product)
+            product.name = "page-$it"
+            dm.save(product)
+        }
+    }
+
+    def "page with total count"(int firstResult, int maxResults, int size) {
+        def context = new LoadContext<Product>(metadata.getClass(Product))
+                .setQuery(new LoadContext.Query('select e from sales_Product e order by e.name')
+                        .setFirstResult(firstResult)
+                        .setMaxResults(maxResults))
+
+        when:
+
+        def page = dataStore.loadPage(context)
+
+        then:
+
+        page.list.size() == size
+        page.totalCount == 5
+
+        where:
+
+        firstResult | maxResults | size
+        0           | 10         | 5
+        0           | 2          | 2
+        2           | 2          | 2
+        4           | 2          | 1
+        6           | 2          | 0
+        0           | 0          | 5
+    }
+}
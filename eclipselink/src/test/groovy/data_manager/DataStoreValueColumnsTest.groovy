@@ -0,0 +1,164 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package data_manager
+
+import io.jmix.core.DataManager
+import io.jmix.core.Stores
+import io.jmix.core.ValueLoadContext
+import io.jmix.data.PersistenceHints
+import io.jmix.eclipselink.impl.JpaDataStore
+import io.jmix.eclipselink.impl.ValueColumns
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.context.ApplicationContext
+import org.springframework.transaction.support.TransactionTemplate
+import test_support.DataSpec
+import test_support.entity.sales.Product
+
+import javax.persistence.EntityManager
+import javax.persistence.PersistenceContext
+import java.util.stream.Collectors
+
+class DataStoreValueColumnsTest extends DataSpec {
+
+    @Autowired
+    DataManager dm
+
+    @Autowired
+    ApplicationContext applicationContext
+
+    @Autowired
+    TransactionTemplate tx
+
+    @PersistenceContext
+    EntityManager entityManager
+
+    JpaDataStore dataStore
+
+    void setup() {
+        dataStore = applicationContext.getBean(JpaDataStore)
+        dataStore.setName(Stores.MAIN)
+
+        (1..5).each {
+            def product = dm.create(Product)
+            product.name = "value-$it"
+            dm.save(product)
+        }
+    }
+
+    def "load values into columns"() {
+        def context = ValueLoadContext.create()
+        context.setProperties(['id', 'name'])
+                .setQueryString('select e.id, e.name from sales_Product e order by e.name')
+
+        when:
+
+        def columns = dataStore.loadValueColumns(context)
+
+        then:
+
+        columns.size() == 5
+        columns.getColumn('name') as List == (1..5).collect { "value-$it".toString() }
+        columns.getValue(0, 'id') != null
+
+        when: "single property"
+
+        context = ValueLoadContext.create()
+        context.setProperties(['name'])
+                .setQueryString('select e.name from sales_Product e order by e.name')
+
+        columns = dataStore.loadValueColumns(context)
+
+        then:
+
+        columns.getColumn('name') as List == (1..5).collect { "value-$it".toString() }
+    }
+
+    def "load values into columns by stream"() {
+        def context = ValueLoadContext.create()
+        context.setProperties(['id', 'name'])
+                .setQueryString('select e.id, e.name from sales_Product e order by e.name')
+
+        when:
+
+        def stream = dataStore.loadValueColumnsStream(context, 2)
+        def chunks
+        try {
+            chunks = stream.collect(Collectors.toList())
+        } finally {
+            stream.close()
+        }
+
+        then:
+
+        chunks.collect { it.size() } == [2, 2, 1]
+        chunks.collectMany { it.getColumn('name') as List } == (1..5).collect { "value-$it".toString() }
+    }
+
+    def "soft deletion mode of joined transaction is restored"() {
+        def context = ValueLoadContext.create()
+        context.setProperties(['name'])
+                .setQueryString('select e.name from sales_Product e')
+        context.setHint(PersistenceHints.SOFT_DELETION, false)
+        context.setJoinTransaction(true)
+
+        boolean afterLoad = false, afterStream = false
+        int loaded = 0, streamed = 0
+
+        when:
+
+        tx.executeWithoutResult { status ->
+            loaded = dataStore.loadValueColumns(context).size()
+            afterLoad = PersistenceHints.isSoftDeletion(entityManager)
+
+            def stream = dataStore.loadValueColumnsStream(context, 2)
+            try {
+                streamed = stream.mapToInt { it.size() }.sum()
+            } finally {
+                stream.close()
+            }
+            afterStream = PersistenceHints.isSoftDeletion(entityManager)
+        }
+
+        then:
+
+        loaded == 5
+        streamed == 5
+        afterLoad
+        afterStream
+    }
+
+    def "denied values are not copied to columns"() {
+        def rows = [['a', 1] as Object[], ['b', 2] as Object[]]
+
+        when:
+
+        def columns = ValueColumns.fromRows(['name', 'amount'], rows, [1])
+
+        then:
+
+        columns.getColumn('name') as List == ['a', 'b']
+        columns.getColumn('amount') as List == [null, null]
+
+        when: "single property"
+
+        columns = ValueColumns.fromRows(['name'], ['a', 'b'], [0])
+
+        then:
+
+        columns.getColumn('name') as List == [null, null]
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package fetch_group
+
+import io.jmix.core.DataManager
+import io.jmix.core.FetchPlanRepository
+import io.jmix.core.FetchPlans
+import io.jmix.eclipselink.impl.FetchGroupDescription
+import io.jmix.eclipselink.impl.FetchGroupManager
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.entity.lazyloading.ManyToOneEntity
+
+class FetchGroupCacheTest extends DataSpec {
+
+    @Autowired
+    FetchGroupManager fetchGroupManager
+    @Autowired
+    FetchPlanRepository fetchPlanRepository
+    @Autowired
+    FetchPlans fetchPlans
+    @Autowired
+    DataManager dataManager
+
+    void cleanup() {
+        fetchGroupManager.clearCache()
+    }
+
+    def "description is cached for the same fetch plan and query"() {
+        def fetchPlan = fetchPlanRepository.getFetchPlan(ManyToOneEntity, "ManyToOneEntity")
+        def query = "select e from test_ManyToOneEntity e"
+
+        when:
+
+        FetchGroupDescription description1 = fetchGroupManager.calculateFetchGroup(query, fetchPlan, false, true)
+        FetchGroupDescription description2 = fetchGroupManager.calculateFetchGroup(query, fetchPlan, false, true)
+
+        then:
+
+        description1.is(description2)
+        !description1.is(fetchGroupManager.calculateFetchGroup(query, fetchPlan, true, true))
+        !description1.is(fetchGroupManager.calculateFetchGroup(query + " where e.name = :name", fetchPlan, false, true))
+
+        when:
+
+        description1.addAttribute("foo")
+
+        then:
+
+        thrown(UnsupportedOperationException)
+    }
+
+    def "description is not shared between fetch plan instances"() {
+        def query = "select e from test_ManyToOneEntity e"
+        def fetchPlan1 = fetchPlans.builder(ManyToOneEntity).add("name").add("oneToManyEntity").build()
+        def fetchPlan2 = fetchPlans.builder(ManyToOneEntity).add("name").build()
+
+        when:
+
+        FetchGroupDescription description1 = fetchGroupManager.calculateFetchGroup(query, fetchPlan1, false, true)
+        FetchGroupDescription description2 = fetchGroupManager.calculateFetchGroup(query, fetchPlan2, false, true)
+
+        then:
+
+        description1.attributes.any { it.startsWith("oneToManyEntity") }
+        !description2.attributes.any { it.startsWith("oneToManyEntity") }
+    }
+
+    def "description is reused by loads with copies of the same fetch plan"() {
+        fetchGroupManager.clearCache()
+
+        when:
+
+        loadManyToOneEntities()
+        def cached = new ArrayList(fetchGroupManager.@descriptions.asMap().values())
+        loadManyToOneEntities()
+        def cachedAfter = fetchGroupManager.@descriptions.asMap().values()
+
+        then:
+
+        !cached.isEmpty()
+        cachedAfter.size() == cached.size()
+        cachedAfter.every { description -> cached.any { it.is(description) } }
+    }
+
+    def "cache is cleared when an instance name fetch plan of the repository changes"() {
+        def fetchPlan = fetchPlanRepository.getFetchPlan(ManyToOneEntity, "ManyToOneEntity")
+        def query = "select e from test_ManyToOneEntity e"
+        def otherQuery = query + " where e.name = :name"
+
+        FetchGroupDescription description = fetchGroupManager.calculateFetchGroup(query, fetchPlan, false, true)
+        fetchGroupManager.calculateFetchGroup(otherQuery, fetchPlan, false, true)
+
+        when: "cached descriptions depend on a plan that differs from the repository one"
+
+        fetchGroupManager.@descriptions.asMap().values().each { it.repositoryPlans.put(ManyToOneEntity, "stale") }
+        FetchGroupDescription recalculated = fetchGroupManager.calculateFetchGroup(query, fetchPlan, false, true)
+
+        then: "the cache is cleared and the description is calculated again"
+
+        !recalculated.is(description)
+        recalculated.attributes == description.attributes
+        fetchGroupManager.@descriptions.size() == 1
+    }
+
+    private void loadManyToOneEntities() {
+        dataManager.load(ManyToOneEntity)
+                .query("select e from test_ManyToOneEntity e")
+                .fetchPlan("ManyToOneEntity")
+                .list()
+    }
+}
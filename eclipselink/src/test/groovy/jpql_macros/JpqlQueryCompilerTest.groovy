@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jpql_macros
+
+import io.jmix.data.impl.JpqlQueryCompiler
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+
+class JpqlQueryCompilerTest extends DataSpec {
+
+    @Autowired
+    JpqlQueryCompiler compiler
+
+    void cleanup() {
+        compiler.clearCache()
+    }
+
+    def "compiled query is reused"() {
+        def queryString = 'select e from sales_Product e where e.name = :name'
+
+        when:
+
+        def query = compiler.compile(queryString)
+
+        then:
+
+        query.queryString == queryString
+        query.paramNames == ['name'] as Set
+        !query.hasMacros()
+        compiler.compile(queryString).is(query)
+    }
+
+    def "query with macros"() {
+        when:
+
+        def query = compiler.compile('select e from test_TestDateTimeEntity e where @between(e.localDate, now-1, now+1, day)')
+
+        then:
+
+        query.hasMacros()
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jpql_sort
+
+import io.jmix.core.DataManager
+import io.jmix.core.Sort
+import io.jmix.data.PersistenceHints
+import io.jmix.data.impl.JpqlQueryBuilder
+import org.springframework.beans.factory.BeanFactory
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.entity.sales.Product
+
+class KeysetPaginationTest extends DataSpec {
+
+    @Autowired
+    DataManager dataManager
+
+    @Autowired
+    BeanFactory beanFactory
+
+    def "keyset condition"() {
+
+        JpqlQueryBuilder queryBuilder
+
+        when:
+
+        queryBuilder = beanFactory.getBean(JpqlQueryBuilder)
+        queryBuilder.setQueryString('select u from sec$User u')
+                .setSort(Sort.by('login'))
+                .setKeysetValues(['admin', UUID.randomUUID()])
+                .setEntityName('sec$User')
+
+        def query = queryBuilder.getResultQueryString()
+
+        then:
+
+        query.contains('u.login > :_keyset0')
+        query.contains('u.login = :_keyset0 and u.id > :_keyset1')
+        query.endsWith('order by u.login, u.id')
+        queryBuilder.getResultParameters().keySet() == ['_keyset0', '_keyset1'] as Set
+
+        when: "desc"
+
+        queryBuilder = beanFactory.getBean(JpqlQueryBuilder)
+        queryBuilder.setQueryString('select u from sec$User u')
+                .setSort(Sort.by(Sort.Direction.DESC, 'login'))
+                .setKeysetValues(['admin', UUID.randomUUID()])
+                .setEntityName('sec$User')
+
+        query = queryBuilder.getResultQueryString()
+
+        then:
+
+        query.contains('u.login < :_keyset0')
+        query.contains('u.login = :_keyset0 and u.id < :_keyset1')
+
+        when: "by reference"
+
+        queryBuilder = beanFactory.getBean(JpqlQueryBuilder)
+        queryBuilder.setQueryString('select u from sec$User u')
+                .setSort(Sort.by('group'))
+                .setKeysetValues(['group', UUID.randomUUID()])
+                .setEntityName('sec$User')
+                .getResultQueryString()
+
+        then:
+
+        thrown(UnsupportedOperationException)
+    }
+
+    def "load pages by keyset"() {
+        (1..7).each {
+            def product = dataManager.create(Product)
+            product.name = "keyset-${it % 3}"
+            dataManager.save(product)
+        }
+
+        when:
+
+        List<Product> loaded = []
+        List<Product> page = dataManager.load(Product).query('select e from sales_Product e')
+                .sort(Sort.by('name'))
+                .maxResults(3)
+                .list()
+        while (!page.isEmpty()) {
+            loaded.addAll(page)
+            def last = page.last()
+            page = dataManager.load(Product).query('select e from sales_Product e')
+                    .sort(Sort.by('name'))
+                    .maxResults(3)
+                    .hint(PersistenceHints.KEYSET_AFTER, new ArrayList<>([last.name, last.id]))
+                    .list()
+        }
+
+        then:
+
+        loaded.size() == 7
+        loaded.collect { it.id } as Set == dataManager.load(Product).query('select e from sales_Product e').list().collect { it.id } as Set
+        loaded.collect { it.name } == loaded.collect { it.name }.sort()
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jpql_transform
+
+import io.jmix.core.querycondition.Condition
+import io.jmix.core.querycondition.JpqlCondition
+import io.jmix.core.querycondition.LogicalCondition
+import io.jmix.core.querycondition.PropertyCondition
+import io.jmix.data.impl.jpql.generator.ConditionGenerationContext
+import io.jmix.data.impl.jpql.generator.ConditionJpqlGenerator
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+
+class ConditionJpqlCacheTest extends DataSpec {
+
+    @Autowired
+    ConditionJpqlGenerator generator
+
+    void cleanup() {
+        generator.clearCache()
+    }
+
+    def "query is reused for conditions of the same structure"() {
+        def query = 'select e from test_TestAppEntity e'
+
+        when:
+
+        def result1 = process(query, LogicalCondition.and()
+                .add(PropertyCondition.contains('name', 'one'))
+                .add(PropertyCondition.equal('name', 'two')))
+        def result2 = process(query, LogicalCondition.and()
+                .add(PropertyCondition.contains('name', 'three'))
+                .add(PropertyCondition.equal('name', 'four')))
+
+        then:
+
+        result2.is(result1)
+
+        when:
+
+        def result3 = process(query, LogicalCondition.or()
+                .add(PropertyCondition.contains('name', 'one'))
+                .add(PropertyCondition.equal('name', 'two')))
+
+        then:
+
+        result3 != result1
+        result3.contains(' or ')
+    }
+
+    def "unary conditions depend on the parameter value"() {
+        def query = 'select e from test_TestAppEntity e'
+
+        when:
+
+        def isSet = process(query, PropertyCondition.createWithValue('name', PropertyCondition.Operation.IS_SET, true))
+        def isNotSet = process(query, PropertyCondition.createWithValue('name', PropertyCondition.Operation.IS_SET, false))
+
+        then:
+
+        isSet != isNotSet
+    }
+
+    def "cache keys of conditions with separators in their components differ"() {
+        def query = 'select e from test_TestAppEntity e'
+
+        when:
+
+        def key1 = cacheKey(query, new JpqlCondition(join: 'join e.a a|x', where: 'a.name = 1'))
+        def key2 = cacheKey(query, new JpqlCondition(join: 'join e.a a', where: 'x|a.name = 1'))
+
+        def key3 = cacheKey(query, LogicalCondition.and()
+                .add(new JpqlCondition(where: "e.name = 'a'),jpql(null|e.name = 'b'")))
+        def key4 = cacheKey(query, LogicalCondition.and()
+                .add(new JpqlCondition(where: "e.name = 'a'"))
+                .add(new JpqlCondition(where: "e.name = 'b'")))
+
+        then:
+
+        key1 != null
+        key1 != key2
+        key3 != key4
+    }
+
+    private String cacheKey(String query, Condition condition) {
+        def context = new ConditionGenerationContext(condition)
+        context.entityName = 'test_TestAppEntity'
+        return generator.createCacheKey(query, context)
+    }
+
+    private String process(String query, Condition condition) {
+        def context = new ConditionGenerationContext(condition)
+        context.entityName = 'test_TestAppEntity'
+        return generator.processQuery(query, context)
+    }
+}
@@ -119,4 +119,33 @@ class JpqlQueryTransformationTest extends Specification {
         then:
         result == 'select c from sec$GroupHierarchy h join h.parent.constraints c where 2 = 2'
     }
+
+    def "replace comparisons with null parameters"() {
+
+        when: "equality and inequality"
+
+        def transformer = new QueryTransformerAstBased(domainModel, 'select u from sec_User u where u.login = :par1 and :par2 <> u.login')
+
+        def replaced1 = transformer.replaceNullComparisons("par1")
+        def replaced2 = transformer.replaceNullComparisons("par2")
+        def result = transformer.getResult()
+
+        then:
+        replaced1
+        replaced2
+        result.replaceAll(/\s+/, ' ') == 'select u from sec_User u where u.login is null and u.login is not null'
+
+        when: "parameter is not compared with a path"
+
+        transformer = new QueryTransformerAstBased(domainModel, 'select u from sec_User u where u.login like :par1 or :par2 is null')
+
+        replaced1 = transformer.replaceNullComparisons("par1")
+        replaced2 = transformer.replaceNullComparisons("par2")
+        result = transformer.getResult()
+
+        then:
+        !replaced1
+        !replaced2
+        result == 'select u from sec_User u where u.login like :par1 or :par2 is null'
+    }
 }
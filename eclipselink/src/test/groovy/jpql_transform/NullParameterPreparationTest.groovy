@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jpql_transform
+
+import io.jmix.core.DataManager
+import io.jmix.core.Stores
+import io.jmix.eclipselink.impl.QueryPreparationManager
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.entity.sales.Product
+
+class NullParameterPreparationTest extends DataSpec {
+
+    @Autowired
+    DataManager dataManager
+
+    @Autowired
+    QueryPreparationManager queryPreparationManager
+
+    Product product1, product2
+
+    void setup() {
+        product1 = dataManager.create(Product)
+        product1.name = 'Apple'
+        product1.quantity = 10
+
+        product2 = dataManager.create(Product)
+        product2.quantity = 20
+
+        dataManager.save(product1, product2)
+    }
+
+    void cleanup() {
+        queryPreparationManager.setCanonicalizeNullParameters(Stores.MAIN, true)
+    }
+
+    def "comparisons with null parameters"(boolean canonicalize) {
+        queryPreparationManager.setCanonicalizeNullParameters(Stores.MAIN, canonicalize)
+
+        when:
+
+        def withName = load('select e from sales_Product e where e.name = :name', 'Apple')
+        def withoutName = load('select e from sales_Product e where e.name = :name', null)
+        def withOtherName = load('select e from sales_Product e where e.name <> :name', null)
+        def optional = load('select e from sales_Product e where (:name is null or e.name = :name) order by e.quantity', null)
+
+        then:
+
+        withName == [product1]
+        withoutName == [product2]
+        withOtherName == [product1]
+        optional == [product1, product2]
+
+        where:
+
+        canonicalize << [true, false]
+    }
+
+    def "settings of the data store"() {
+
+        when:
+
+        queryPreparationManager.setJpqlParseCacheSize(Stores.MAIN, 50)
+        queryPreparationManager.setStatementCacheSize(Stores.MAIN, 20)
+
+        then:
+
+        queryPreparationManager.getJpqlParseCacheSize(Stores.MAIN) == 50
+        queryPreparationManager.getStatementCacheSize(Stores.MAIN) == 20
+        load('select e from sales_Product e where e.name = :name', 'Apple') == [product1]
+
+        when:
+
+        queryPreparationManager.setStatementCacheSize(Stores.MAIN, 0)
+
+        then:
+
+        queryPreparationManager.getStatementCacheSize(Stores.MAIN) == 0
+
+        cleanup:
+
+        queryPreparationManager.setJpqlParseCacheSize(Stores.MAIN, 1000)
+    }
+
+    private List<Product> load(String query, String name) {
+        dataManager.load(Product)
+                .query(query)
+                .parameter('name', name)
+                .list()
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jpql_transform
+
+import io.jmix.core.DataManager
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.entity.sales.Product
+
+class TransformedQueryCacheTest extends DataSpec {
+
+    @Autowired
+    DataManager dataManager
+
+    Product product1, product2
+
+    void setup() {
+        product1 = dataManager.create(Product)
+        product1.name = 'Apple'
+        product1.quantity = 10
+
+        product2 = dataManager.create(Product)
+        product2.name = 'Banana'
+        product2.quantity = 20
+
+        dataManager.save(product1, product2)
+    }
+
+    def "repeated queries with different parameter shapes"() {
+        def query = 'select e from sales_Product e where (:name is null or e.name = :name) and e.quantity in :quantities order by e.name'
+
+        when: "the same query is executed several times with different parameter values"
+
+        def all = load(query, null, [10, 20])
+        def allAgain = load(query, null, [10, 20])
+        def apple = load(query, 'Apple', [10, 20])
+        def banana = load(query, 'Banana', [10, 20])
+        def none = load(query, 'Apple', [])
+        def allOnceMore = load(query, null, [10, 20])
+
+        then: "each shape of parameters gets its own transformation"
+
+        all == [product1, product2]
+        allAgain == [product1, product2]
+        apple == [product1]
+        banana == [product2]
+        none == []
+        allOnceMore == [product1, product2]
+    }
+
+    def "repeated queries with case-insensitive parameter"() {
+        def query = 'select e from sales_Product e where e.name like :name'
+
+        when:
+
+        def apple = dataManager.load(Product).query(query).parameter('name', '(?i)%APP%').list()
+        def banana = dataManager.load(Product).query(query).parameter('name', '(?i)%BAN%').list()
+        def caseSensitive = dataManager.load(Product).query(query).parameter('name', '%BAN%').list()
+
+        then:
+
+        apple == [product1]
+        banana == [product2]
+        caseSensitive == []
+    }
+
+    private List<Product> load(String query, String name, List<Integer> quantities) {
+        dataManager.load(Product)
+                .query(query)
+                .parameter('name', name)
+                .parameter('quantities', quantities)
+                .list()
+    }
+}
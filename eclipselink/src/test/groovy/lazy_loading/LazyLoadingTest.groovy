@@ -23,6 +23,7 @@ import io.jmix.core.Metadata
 import org.springframework.beans.factory.annotation.Autowired
 import spock.lang.Ignore
 import test_support.DataSpec
+import test_support.TestSqlCounter
 import test_support.entity.lazyloading.*
 
 class LazyLoadingTest extends DataSpec {
@@ -33,6 +34,8 @@ class LazyLoadingTest extends DataSpec {
     Metadata metadata
     @Autowired
     FetchPlanRepository fetchPlanRepository
+    @Autowired
+    TestSqlCounter sqlCounter
 
     def "OneToOne with field test"() {
         setup:
@@ -179,6 +182,43 @@ class LazyLoadingTest extends DataSpec {
         }
     }
 
+    def "ManyToOne siblings loaded by batch"() {
+        setup:
+
+        OneToManyEntity oneToManyEntity1 = metadata.create(OneToManyEntity.class)
+        oneToManyEntity1.setName("Name 1")
+        dataManager.save(oneToManyEntity1)
+
+        OneToManyEntity oneToManyEntity2 = metadata.create(OneToManyEntity.class)
+        oneToManyEntity2.setName("Name 2")
+        dataManager.save(oneToManyEntity2)
+
+        for (i in 1..4) {
+            ManyToOneEntity manyToOneEntity = metadata.create(ManyToOneEntity.class)
+            manyToOneEntity.setName("Batch many $i")
+            manyToOneEntity.setOneToManyEntity(i % 2 == 0 ? oneToManyEntity2 : oneToManyEntity1)
+            dataManager.save(manyToOneEntity)
+        }
+
+        when:
+
+        LoadContext<ManyToOneEntity> loadContext = new LoadContext<>(metadata.getClass(ManyToOneEntity.class))
+        loadContext.setQueryString("select e from test_ManyToOneEntity e where e.name like 'Batch many%' order by e.name")
+        loadContext.setFetchPlan(fetchPlanRepository.getFetchPlan(ManyToOneEntity.class, "ManyToOneEntity"))
+        List<ManyToOneEntity> entities = dataManager.loadList(loadContext)
+        sqlCounter.start()
+        def owners = entities.collect { it.getOneToManyEntity() }
+        sqlCounter.stop()
+
+        then: "references of all loaded entities are loaded by one query"
+
+        entities.size() == 4
+        owners == [oneToManyEntity1, oneToManyEntity2, oneToManyEntity1, oneToManyEntity2]
+        sqlCounter.count('select') == 1
+        entities.collect { it.getOneToManyEntity().getName() } == ["Name 1", "Name 2", "Name 1", "Name 2"]
+        entities.collect { it.getOneToManyEntity().getManyToOneEntities().size() } == [2, 2, 2, 2]
+    }
+
     def "ManyToMany test"() {
         setup:
 
@@ -30,6 +30,7 @@ import org.springframework.jdbc.core.JdbcTemplate
 
 import org.springframework.beans.factory.annotation.Autowired
 import test_support.DataSpec
+import test_support.TestSqlCounter
 import test_support.entity.number_id_generation.NumberIdSingleTableRoot
 
 import javax.sql.DataSource
@@ -53,6 +54,8 @@ class NumberIdConcurrencyTest extends DataSpec {
     private DataProperties dataProperties
     @Autowired
     private DataSource dataSource
+    @Autowired
+    private TestSqlCounter sqlCounter
 
     private SequenceSupport sequenceSupport
 
@@ -119,6 +122,127 @@ class NumberIdConcurrencyTest extends DataSpec {
         DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 100)
     }
 
+    def "generating ids with background refill"() {
+
+        DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 10)
+        DataConfigPropertiesAccess.setNumberIdCacheRefillPercent(dataProperties, 50)
+
+        when:
+
+        generateSomeEntities(500)
+
+        then:
+
+        countEntities() == 500
+
+        cleanup:
+
+        DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 100)
+        DataConfigPropertiesAccess.setNumberIdCacheRefillPercent(dataProperties, 20)
+    }
+
+    def "generating ids with adaptive number of blocks"() {
+
+        DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 5)
+        DataConfigPropertiesAccess.setNumberIdCacheMaxSize(dataProperties, 50)
+
+        when:
+
+        generateSomeEntities(500)
+
+        then:
+
+        countEntities() == 500
+
+        cleanup:
+
+        DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 100)
+        DataConfigPropertiesAccess.setNumberIdCacheMaxSize(dataProperties, 10000)
+    }
+
+    def "next blocks are fetched in background before the current block is exhausted"() {
+
+        DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 10)
+        DataConfigPropertiesAccess.setNumberIdCacheRefillPercent(dataProperties, 50)
+        DataConfigPropertiesAccess.setNumberIdCacheMaxSize(dataProperties, 30)
+        def entityName = 'test$NumberIdSingleTableRoot'
+
+        when: "the low water mark of the first block is reached"
+
+        def ids = (1..5).collect { numberIdCache.createLongId(entityName) }
+        numberIdCache.@cache.values().first().awaitNextBlocks()
+        sqlCounter.start()
+        ids += (6..14).collect { numberIdCache.createLongId(entityName) }
+        sqlCounter.stop()
+
+        then: "next ids are taken from the prefetched block without calls to the sequence"
+
+        ids == (1L..14L).toList()
+        sqlCounter.statements.isEmpty()
+        numberIdCache.@refillExecutor.maximumPoolSize == 2
+
+        cleanup:
+
+        DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 100)
+        DataConfigPropertiesAccess.setNumberIdCacheRefillPercent(dataProperties, 20)
+        DataConfigPropertiesAccess.setNumberIdCacheMaxSize(dataProperties, 10000)
+    }
+
+    def "ids are generated after shutdown of the background refill"() {
+
+        DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 10)
+        DataConfigPropertiesAccess.setNumberIdCacheRefillPercent(dataProperties, 50)
+        def entityName = 'test$NumberIdSingleTableRoot'
+        def refillExecutor = numberIdCache.@refillExecutor
+        def stoppedExecutor = numberIdCache.createRefillExecutor()
+        stoppedExecutor.shutdownNow()
+        numberIdCache.@refillExecutor = stoppedExecutor
+
+        when: "background refill is rejected"
+
+        def ids = (1..25).collect { numberIdCache.createLongId(entityName) }
+
+        then: "next blocks are fetched synchronously"
+
+        ids == (1L..25L).toList()
+
+        cleanup:
+
+        numberIdCache.@refillExecutor = refillExecutor
+        DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 100)
+        DataConfigPropertiesAccess.setNumberIdCacheRefillPercent(dataProperties, 20)
+    }
+
+    def "number of blocks depends on allocation rate and they are reserved by one statement"() {
+
+        DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 5)
+        DataConfigPropertiesAccess.setNumberIdCacheMaxSize(dataProperties, 50)
+        numberIdCache.createLongId('test$NumberIdSingleTableRoot')
+        def generator = numberIdCache.@cache.values().first()
+
+        expect:
+
+        generator.getBlocksCount(5, TimeUnit.SECONDS.toNanos(10), 5) == 1
+        generator.getBlocksCount(20, TimeUnit.SECONDS.toNanos(1), 5) == 4
+        generator.getBlocksCount(100000, TimeUnit.SECONDS.toNanos(1), 5) == 10
+
+        when:
+
+        sqlCounter.start()
+        def blocks = generator.fetchBlocks(10)
+        sqlCounter.stop()
+
+        then:
+
+        sqlCounter.statements.size() == 1
+        blocks.collect { it.last - it.size } == (1..10).collect { it * 5L }
+
+        cleanup:
+
+        DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 100)
+        DataConfigPropertiesAccess.setNumberIdCacheMaxSize(dataProperties, 10000)
+    }
+
     def "generate with zero size cache"() {
         DataConfigPropertiesAccess.setNumberIdCacheSize(dataProperties, 0)
 
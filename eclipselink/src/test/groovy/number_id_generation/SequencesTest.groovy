@@ -0,0 +1,182 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package number_id_generation
+
+import io.jmix.data.Sequence
+import io.jmix.data.Sequences
+import io.jmix.data.StoreAwareLocator
+import io.jmix.data.persistence.DbmsSpecifics
+import io.jmix.data.persistence.SequenceSupport
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import org.springframework.transaction.support.TransactionTemplate
+import test_support.DataSpec
+
+import javax.persistence.EntityManager
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class SequencesTest extends DataSpec {
+
+    static final List<String> SEQUENCE_NAMES = ['test_seq_first', 'test_seq_second']
+
+    @Autowired
+    Sequences sequences
+    @Autowired
+    DbmsSpecifics dbmsSpecifics
+    @Autowired
+    StoreAwareLocator storeAwareLocator
+
+    SequenceSupport sequenceSupport
+
+    void setup() {
+        sequenceSupport = dbmsSpecifics.getSequenceSupport()
+    }
+
+    void cleanup() {
+        sequences.@storeAwareLocator = storeAwareLocator
+        sequences.reset()
+        SEQUENCE_NAMES.each {
+            if (sequenceExists(it)) {
+                jdbc.update(sequenceSupport.deleteSequenceSql(it))
+            }
+        }
+    }
+
+    def "next values of different sequences are generated concurrently"() {
+        def first = Sequence.withName('test_seq_first')
+        def second = Sequence.withName('test_seq_second')
+        def executor = Executors.newFixedThreadPool(8)
+        def start = new CountDownLatch(1)
+
+        when:
+
+        def futures = (1..8).collect { i ->
+            def sequence = i % 2 == 0 ? first : second
+            executor.submit({
+                start.await()
+                (1..25).collect { [sequence.name, sequences.createNextValue(sequence)] }
+            })
+        }
+        start.countDown()
+        def values = futures.collectMany { it.get(30, TimeUnit.SECONDS) }
+        executor.shutdown()
+
+        then: "each sequence returns unique values without gaps"
+
+        values.findAll { it[0] == first.name }.collect { it[1] }.sort() == (1L..100L).toList()
+        values.findAll { it[0] == second.name }.collect { it[1] }.sort() == (1L..100L).toList()
+    }
+
+    def "first use of a sequence while another thread deletes it"() {
+        def sequence = Sequence.withName('test_seq_first')
+        def executor = Executors.newFixedThreadPool(2)
+
+        when:
+
+        def results = (1..20).collect {
+            sequences.createNextValue(sequence)
+            def start = new CountDownLatch(1)
+            def deletion = executor.submit({
+                start.await()
+                sequences.deleteSequence(sequence)
+            })
+            def nextValue = executor.submit({
+                start.await()
+                sequences.createNextValue(sequence)
+            })
+            start.countDown()
+            deletion.get(30, TimeUnit.SECONDS)
+            def value = nextValue.get(30, TimeUnit.SECONDS)
+            def exists = sequenceExists(sequence.name)
+            def known = sequences.@existingSequences.contains(sequence.name)
+            if (known) {
+                sequences.deleteSequence(sequence)
+            }
+            [value: value, exists: exists, known: known]
+        }
+        executor.shutdown()
+
+        then: "the value is taken either from the deleted sequence or from the created one"
+
+        results.every { it.value == (it.exists ? 1L : 2L) }
+
+        and: "the sequence is known to exist only if it exists in the database"
+
+        results.every { it.exists == it.known }
+    }
+
+    def "next value of an existing sequence is obtained without transaction"() {
+        def sequence = Sequence.withName('test_seq_first')
+        def transactionTemplates = new AtomicInteger()
+        def activeTransactions = []
+        def locator = storeAwareLocator
+        sequences.@storeAwareLocator = new StoreAwareLocator() {
+            @Override
+            JdbcTemplate getJdbcTemplate(String storeName) {
+                activeTransactions << TransactionSynchronizationManager.isActualTransactionActive()
+                return locator.getJdbcTemplate(storeName)
+            }
+
+            @Override
+            TransactionTemplate getTransactionTemplate(String storeName) {
+                transactionTemplates.incrementAndGet()
+                return locator.getTransactionTemplate(storeName)
+            }
+
+            @Override
+            PlatformTransactionManager getTransactionManager(String storeName) {
+                return locator.getTransactionManager(storeName)
+            }
+
+            @Override
+            EntityManager getEntityManager(String storeName) {
+                return locator.getEntityManager(storeName)
+            }
+        }
+
+        when: "the sequence is used for the first time"
+
+        def value = sequences.createNextValue(sequence)
+
+        then: "it is created in a transaction"
+
+        value == 1L
+        transactionTemplates.get() == 1
+        activeTransactions == [true]
+
+        when:
+
+        transactionTemplates.set(0)
+        activeTransactions.clear()
+        def values = (1..3).collect { sequences.createNextValue(sequence) }
+
+        then: "the single statement is executed without opening a transaction"
+
+        values == [2L, 3L, 4L]
+        transactionTemplates.get() == 0
+        activeTransactions == [false, false, false]
+    }
+
+    private boolean sequenceExists(String sequenceName) {
+        !jdbc.queryForList(sequenceSupport.sequenceExistsSql(sequenceName)).isEmpty()
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package persistence
+
+import io.jmix.core.DataManager
+import io.jmix.core.SaveContext
+import io.jmix.eclipselink.EclipselinkProperties
+import io.jmix.eclipselink.impl.support.JmixEclipseLinkSessionEventListener
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory
+import org.eclipse.persistence.sessions.DatabaseLogin
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.TestSqlCounter
+import test_support.entity.sales.Product
+
+import javax.persistence.EntityManagerFactory
+
+class JdbcBatchWritingTest extends DataSpec {
+
+    @Autowired
+    DataManager dataManager
+    @Autowired
+    EntityManagerFactory entityManagerFactory
+    @Autowired
+    EclipselinkProperties properties
+    @Autowired
+    JmixEclipseLinkSessionEventListener sessionEventListener
+    @Autowired
+    TestSqlCounter sqlCounter
+
+    DatabaseLogin login
+    boolean bindAllParameters
+
+    void setup() {
+        def session = entityManagerFactory.unwrap(JpaEntityManagerFactory).serverSession
+        login = session.login
+        bindAllParameters = login.shouldBindAllParameters()
+
+        properties.@jdbcBatchWriting = true
+        sessionEventListener.setBatchWriting(session)
+    }
+
+    void cleanup() {
+        properties.@jdbcBatchWriting = false
+        login.setUsesJDBCBatchWriting(false)
+        login.setUsesBatchWriting(false)
+    }
+
+    def "inserts of one flush are sent in one batch"() {
+        def products = (1..5).collect {
+            def product = dataManager.create(Product)
+            product.name = "p$it"
+            product
+        }
+
+        when:
+
+        sqlCounter.start()
+        dataManager.save(new SaveContext().saving(products))
+        sqlCounter.stop()
+
+        then:
+
+        sqlCounter.count('insert') == 1
+        dataManager.load(Product).all().list().size() == 5
+    }
+
+    def "parameter binding is not changed"() {
+        expect:
+
+        login.shouldBindAllParameters() == bindAllParameters
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package query_cache
+
+import io.jmix.core.DataManager
+import io.jmix.core.FetchPlan
+import io.jmix.core.FetchPlanRepository
+import io.jmix.core.Stores
+import io.jmix.data.persistence.DbmsFeatures
+import io.jmix.data.persistence.DbmsSpecifics
+import io.jmix.eclipselink.impl.entitycache.QueryCache
+import io.jmix.eclipselink.impl.entitycache.QueryCacheManager
+import io.jmix.eclipselink.impl.entitycache.QueryKey
+import io.jmix.eclipselink.impl.entitycache.QueryResult
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.TestSqlCounter
+import test_support.entity.sales.Product
+
+class QueryCacheBatchLoadingTest extends DataSpec {
+
+    @Autowired
+    QueryCacheManager queryCacheManager
+    @Autowired
+    QueryCache queryCache
+    @Autowired
+    DataManager dataManager
+    @Autowired
+    DbmsSpecifics dbmsSpecifics
+    @Autowired
+    FetchPlanRepository fetchPlanRepository
+    @Autowired
+    TestSqlCounter sqlCounter
+
+    DbmsFeatures dbmsFeatures
+
+    void setup() {
+        dbmsFeatures = dbmsSpecifics.getDbmsFeatures(Stores.MAIN)
+        dbmsSpecifics.@dbmsFeaturesByStore.put(Stores.MAIN, new BatchSizeDbmsFeatures(delegate: dbmsFeatures))
+    }
+
+    void cleanup() {
+        dbmsSpecifics.@dbmsFeaturesByStore.put(Stores.MAIN, dbmsFeatures)
+        queryCache.invalidateAll()
+    }
+
+    def "cached ids are loaded by batches in the cached order"() {
+        def products = (1..5).collect { createProduct("p$it") }
+        def missingId = UUID.randomUUID()
+        def ids = [products[2].id, missingId, products[0].id, products[4].id, products[1].id, products[3].id, products[2].id]
+
+        def key = new QueryKey('select e from sales_Product e', 0, 0, false, false, null, null)
+        queryCache.put(key, new QueryResult(ids, 'sales_Product', ['sales_Product'] as Set))
+
+        when:
+
+        sqlCounter.start()
+        List<Product> result = transaction.execute {
+            queryCacheManager.getResultListFromCache(key, [fetchPlanRepository.getFetchPlan(Product, FetchPlan.BASE)])
+        }
+        sqlCounter.stop()
+
+        then: "one query per batch of distinct ids, even for instances in the entity cache"
+
+        result.collect { it?.id } == [products[2].id, null, products[0].id, products[4].id, products[1].id, products[3].id, products[2].id]
+        sqlCounter.count('select') == 3
+    }
+
+    private Product createProduct(String name) {
+        def product = dataManager.create(Product)
+        product.name = name
+        return dataManager.save(product)
+    }
+
+    static class BatchSizeDbmsFeatures implements DbmsFeatures {
+        @Delegate
+        DbmsFeatures delegate
+
+        @Override
+        Integer getMaxIdsBatchSize() {
+            return 2
+        }
+    }
+}
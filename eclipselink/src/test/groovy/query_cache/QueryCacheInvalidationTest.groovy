@@ -0,0 +1,170 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package query_cache
+
+import io.jmix.core.DataManager
+import io.jmix.core.LoadContext
+import io.jmix.core.Metadata
+import io.jmix.eclipselink.EclipselinkProperties
+import io.jmix.eclipselink.impl.entitycache.QueryCache
+import io.jmix.eclipselink.impl.entitycache.QueryKey
+import io.jmix.eclipselink.impl.entitycache.QueryResult
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.entity.soft_delete.HardDeleteEntity
+
+class QueryCacheInvalidationTest extends DataSpec {
+
+    @Autowired
+    QueryCache queryCache
+
+    @Autowired
+    DataManager dataManager
+
+    @Autowired
+    Metadata metadata
+
+    @Autowired
+    EclipselinkProperties eclipselinkProperties
+
+    void cleanup() {
+        eclipselinkProperties.@queryCacheInvalidationByIds = false
+        queryCache.invalidateAll()
+        jdbc.update('delete from TEST_HARDDELETE_ENTITY')
+    }
+
+    def "update invalidates results containing the ids and results not invalidated by ids"() {
+        def id1 = UUID.randomUUID()
+        def id2 = UUID.randomUUID()
+
+        def allKey = key('select e from sales_Product e order by e.name')
+        def byNameKey = key('select e from sales_Product e where e.name = :name', [name: 'p1'])
+        def byIdKey = key('select e from sales_Product e where e.id = :id', [id: id2])
+
+        queryCache.put(allKey, result([id1, id2], true))
+        queryCache.put(byNameKey, result([id1], false))
+        queryCache.put(byIdKey, result([id2], true))
+
+        when: "instance in results is updated"
+
+        queryCache.invalidate('sales_Product', [id1])
+
+        then:
+
+        queryCache.get(allKey) == null
+        queryCache.get(byNameKey) == null
+        queryCache.get(byIdKey) != null
+
+        when: "instance is created or deleted"
+
+        queryCache.invalidate('sales_Product')
+
+        then:
+
+        queryCache.get(byIdKey) == null
+    }
+
+    def "paged query ordered by a property is invalidated by update of an instance not in results"() {
+        eclipselinkProperties.@queryCacheInvalidationByIds = true
+
+        def first = createEntity('b')
+        createEntity('c')
+        def last = createEntity('d')
+
+        when:
+
+        def page = loadEntities('select e from test_HardDeleteEntity e order by e.title', 2)
+        def byId = loadEntities('select e from test_HardDeleteEntity e where e.id = :id', 0, [id: first.id])
+
+        then:
+
+        page*.title == ['b', 'c']
+        byId*.title == ['b']
+        queryCache.size() == 2
+
+        when:
+
+        last.title = 'a'
+        dataManager.save(last)
+
+        then: "the page is invalidated, the query by id is not"
+
+        queryCache.size() == 1
+        loadEntities('select e from test_HardDeleteEntity e order by e.title', 2)*.title == ['a', 'b']
+    }
+
+    def "update of an instance not in results"() {
+        def key = key('select e from sales_Product e')
+        queryCache.put(key, result([UUID.randomUUID()], true))
+
+        when:
+
+        queryCache.invalidate('sales_Product', [UUID.randomUUID()])
+
+        then:
+
+        queryCache.get(key) != null
+    }
+
+    def "concurrent puts and invalidations do not leave entries missing in the index"() {
+        def threads = (1..4).collect { n ->
+            Thread.start {
+                for (int i = 0; i < 2000; i++) {
+                    queryCache.put(key("select e from sales_Product e where e.quantity = $n$i"), result([], false))
+                }
+            }
+        }
+        def invalidator = Thread.start {
+            while (threads.any { it.alive }) {
+                queryCache.invalidate('sales_Product')
+            }
+        }
+
+        when:
+
+        threads*.join()
+        invalidator.join()
+        queryCache.invalidate('sales_Product')
+
+        then:
+
+        queryCache.size() == 0
+    }
+
+    private static QueryKey key(String query, Map<String, Object> params = null) {
+        return new QueryKey(query, 0, 0, false, false, params, null)
+    }
+
+    private static QueryResult result(List<UUID> ids, boolean invalidatedByIds) {
+        return new QueryResult(ids, 'sales_Product', ['sales_Product'] as Set, null, invalidatedByIds)
+    }
+
+    private HardDeleteEntity createEntity(String title) {
+        def entity = dataManager.create(HardDeleteEntity)
+        entity.title = title
+        return dataManager.save(entity)
+    }
+
+    private List<HardDeleteEntity> loadEntities(String queryString, int maxResults, Map<String, Object> params = [:]) {
+        def query = new LoadContext.Query(queryString).setCacheable(true).setParameters(params)
+        if (maxResults > 0) {
+            query.setMaxResults(maxResults)
+        }
+        return dataManager.loadList(new LoadContext<HardDeleteEntity>(metadata.getClass(HardDeleteEntity))
+                .setQuery(query))
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package query_cache
+
+import io.jmix.core.DataManager
+import io.jmix.core.LoadContext
+import io.jmix.core.Metadata
+import io.jmix.core.ValueLoadContext
+import io.jmix.data.PersistenceHints
+import io.jmix.eclipselink.impl.entitycache.QueryCache
+import org.springframework.beans.factory.annotation.Autowired
+import test_support.DataSpec
+import test_support.entity.sales.Customer
+import test_support.entity.soft_delete.HardDeleteEntity
+
+class ValueQueryCacheTest extends DataSpec {
+
+    @Autowired
+    DataManager dataManager
+    @Autowired
+    Metadata metadata
+    @Autowired
+    QueryCache queryCache
+
+    void cleanup() {
+        queryCache.invalidateAll()
+        jdbc.update('delete from TEST_HARDDELETE_ENTITY')
+    }
+
+    def "count of cacheable query is cached until instances are changed"() {
+        createCustomer('c1')
+
+        def context = new LoadContext<>(metadata.getClass(Customer))
+                .setQuery(new LoadContext.Query('select c from sales_Customer c').setCacheable(true))
+
+        when:
+
+        def count = dataManager.getCount(context)
+
+        then:
+
+        count == 1
+        queryCache.size() == 1
+
+        when:
+
+        createCustomer('c2')
+
+        then:
+
+        queryCache.size() == 0
+        dataManager.getCount(context) == 2
+    }
+
+    def "values of cacheable query are cached including empty results"() {
+        createCustomer('c1')
+
+        when:
+
+        def values = loadNames('c1')
+        jdbc.update("update SALES_CUSTOMER set NAME = 'c3' where NAME = 'c1'")
+
+        then: "changes made bypassing the cache invalidation are not visible"
+
+        values.size() == 1
+        loadNames('c1').size() == 1
+
+        when:
+
+        def empty = loadNames('c2')
+
+        then:
+
+        empty.isEmpty()
+        queryCache.size() == 2
+
+        when:
+
+        createCustomer('c2')
+
+        then:
+
+        loadNames('c2').size() == 1
+        loadNames('c3').size() == 1
+    }
+
+    def "cached values are invalidated by update and entity results are kept"() {
+        def customer = createCustomer('c1')
+
+        def entityContext = new LoadContext<>(metadata.getClass(Customer))
+                .setQuery(new LoadContext.Query('select c from sales_Customer c').setCacheable(true))
+
+        when:
+
+        def entities = dataManager.loadList(entityContext)
+        def values = loadNames('c1')
+
+        then:
+
+        entities.size() == 1
+        values.size() == 1
+        queryCache.size() == 2
+
+        when:
+
+        customer.name = 'c2'
+        dataManager.save(customer)
+
+        then:
+
+        queryCache.size() == 1
+        loadNames('c1').isEmpty()
+        loadNames('c2').size() == 1
+    }
+
+    def "cached values are invalidated by soft and hard deletion"() {
+        def customer = createCustomer('c1')
+        def entity = dataManager.create(HardDeleteEntity)
+        entity.title = 't1'
+        entity = dataManager.save(entity)
+
+        def context = new LoadContext<>(metadata.getClass(Customer))
+                .setQuery(new LoadContext.Query('select c from sales_Customer c').setCacheable(true))
+
+        when:
+
+        def count = dataManager.getCount(context)
+        def titles = loadTitles()
+
+        then:
+
+        count == 1
+        titles.size() == 1
+
+        when:
+
+        dataManager.remove(customer)
+        dataManager.remove(entity)
+
+        then:
+
+        queryCache.size() == 0
+        dataManager.getCount(context) == 0
+        loadTitles().isEmpty()
+    }
+
+    private Customer createCustomer(String name) {
+        def customer = dataManager.create(Customer)
+        customer.name = name
+        return dataManager.save(customer)
+    }
+
+    private List loadTitles() {
+        def context = ValueLoadContext.create()
+        context.setProperties(['title'])
+                .setQueryString('select e.title from test_HardDeleteEntity e')
+        context.setHint(PersistenceHints.CACHEABLE, true)
+        return dataManager.loadValues(context)
+    }
+
+    private List loadNames(String name) {
+        def context = ValueLoadContext.create()
+        context.setProperties(['name'])
+                .setQueryString('select c.name from sales_Customer c where c.name = :name')
+                .setParameter('name', name)
+        context.setHint(PersistenceHints.CACHEABLE, true)
+        return dataManager.loadValues(context)
+    }
+}
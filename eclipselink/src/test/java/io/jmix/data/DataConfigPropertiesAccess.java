@@ -24,4 +24,12 @@ public class DataConfigPropertiesAccess {
     public static void setNumberIdCacheSize(DataProperties properties, int value) {
         properties.numberIdCacheSize = value;
     }
+
+    public static void setNumberIdCacheRefillPercent(DataProperties properties, int value) {
+        properties.numberIdCacheRefillPercent = value;
+    }
+
+    public static void setNumberIdCacheMaxSize(DataProperties properties, int value) {
+        properties.numberIdCacheMaxSize = value;
+    }
 }
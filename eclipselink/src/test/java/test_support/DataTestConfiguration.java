@@ -34,6 +34,7 @@ import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.*;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 import org.springframework.orm.jpa.JpaTransactionManager;
@@ -62,13 +63,13 @@ public class DataTestConfiguration {
         return new JmixMessageSource(modules, resources);
     }
 
-    @Bean
+    @Bean(destroyMethod = "shutdown")
     @Primary
-    DataSource dataSource() {
-        return new EmbeddedDatabaseBuilder()
+    EmbeddedDatabase dataSource(TestSqlCounter sqlCounter) {
+        return sqlCounter.wrap(new EmbeddedDatabaseBuilder()
                 .generateUniqueName(true)
                 .setType(EmbeddedDatabaseType.HSQL)
-                .build();
+                .build());
     }
 
     @Bean
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021 Haulmont.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package test_support;
+
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records SQL statements executed through the wrapped database between {@link #start()} and {@link #stop()}.
+ * Connections obtained outside of this interval are not wrapped. A batch is recorded as one statement.
+ */
+@Component
+public class TestSqlCounter {
+
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile boolean recording;
+
+    public EmbeddedDatabase wrap(EmbeddedDatabase database) {
+        return proxy(EmbeddedDatabase.class, database, null);
+    }
+
+    /**
+     * Clears previously recorded statements and starts recording.
+     */
+    public void start() {
+        statements.clear();
+        recording = true;
+    }
+
+    /**
+     * Stops recording. Recorded statements remain available until the next {@link #start()}.
+     */
+    public void stop() {
+        recording = false;
+    }
+
+    public List<String> getStatements() {
+        synchronized (statements) {
+            return new ArrayList<>(statements);
+        }
+    }
+
+    /**
+     * Returns the number of recorded statements starting with the given keyword, e.g. "select" or "update".
+     */
+    public long count(String keyword) {
+        String prefix = keyword.toLowerCase(Locale.ROOT);
+        return getStatements().stream()
+                .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith(prefix))
+                .count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, T target, String sql) {
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{type}, (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return intercept(method, args, result, sql);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object intercept(Method method, Object[] args, Object result, String sql) {
+        String name = method.getName();
+        if (result instanceof Connection && name.equals("getConnection")) {
+            return recording ? proxy(Connection.class, (Connection) result, null) : result;
+        }
+        if (result instanceof Statement && (name.equals("prepareStatement") || name.equals("prepareCall"))) {
+            Class<? extends Statement> type = name.equals("prepareCall") ? CallableStatement.class : PreparedStatement.class;
+            return proxy((Class<Statement>) type, (Statement) result, (String) args[0]);
+        }
+        if (result instanceof Statement && name.equals("createStatement")) {
+            return proxy(Statement.class, (Statement) result, null);
+        }
+        if (recording && name.startsWith("execute")) {
+            statements.add(sql != null ? sql : args != null && args.length > 0 ? String.valueOf(args[0]) : "");
+        }
+        return result;
+    }
+}